@@ -0,0 +1,206 @@
+package BaseClass;
+
+// Importing Log4j logger for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Importing Selenium WebDriver classes
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of live browser sessions shared by all scenario workers.
+ * A session is checked out before a scenario and reset (cookies, storage, extra windows, about:blank)
+ * when the scenario ends, instead of launching and quitting a browser every time.
+ * Sessions are replaced only after reaching the configured number of uses or when they break.
+ */
+public class BrowserPool {
+
+    private static final Logger logger = LogManager.getLogger(BrowserPool.class); // Logger instance for this class
+
+    private final BlockingDeque<BrowserSession> idle = new LinkedBlockingDeque<>(); // Sessions ready for checkout
+    private final AtomicInteger live = new AtomicInteger(); // Sessions alive or being created (idle + checked out)
+    private final AtomicLong hits = new AtomicLong(); // Checkouts served by an idle session
+    private final AtomicLong misses = new AtomicLong(); // Checkouts that had to launch a browser
+    private final AtomicLong replacements = new AtomicLong(); // Sessions retired because of use count or failure
+    private final Supplier<BrowserSession> sessionFactory; // Launches a new browser
+    private final int maxSize; // Maximum number of live sessions
+    private final int maxUses; // Number of scenarios a session serves before it is replaced
+
+    public BrowserPool(Supplier<BrowserSession> sessionFactory, int maxSize, int maxUses) {
+        this.sessionFactory = sessionFactory;
+        this.maxSize = Math.max(1, maxSize);
+        this.maxUses = Math.max(1, maxUses);
+    }
+
+    /**
+     * Returns an idle session, launching a new browser if the pool is not yet full.
+     * Blocks while all sessions are checked out.
+     * @return A session for exclusive use by the calling scenario.
+     */
+    public BrowserSession checkout() throws InterruptedException {
+        long start = System.nanoTime();
+        while (true) {
+            BrowserSession session = idle.pollFirst();
+            if (session != null) {
+                hits.incrementAndGet();
+                session.markUsed();
+                return session; // Reuse a warm browser
+            }
+
+            if (reserveSlot()) {
+                misses.incrementAndGet();
+                session = launch();
+                session.markUsed();
+                return session; // Launch a new browser within the pool limit
+            }
+
+            session = idle.pollFirst(250, TimeUnit.MILLISECONDS); // Pool is full, wait for a release or a warm-up
+            if (session != null) {
+                hits.incrementAndGet();
+                session.markUsed();
+                logger.info("Blocked " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                    + " ms waiting for a browser session.");
+                return session;
+            }
+        }
+    }
+
+    /**
+     * Launches up to {@code count} browsers in the background so the first scenarios find a ready session.
+     * Warm-ups count against the pool size, so checkouts wait for them instead of launching extra browsers.
+     * @param count Number of browsers to start.
+     */
+    public void prewarm(int count) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, count), runnable -> {
+            Thread thread = new Thread(runnable, "browser-prewarm");
+            thread.setDaemon(true); // Never keep the JVM alive for a warm-up
+            return thread;
+        });
+        for (int i = 0; i < count && reserveSlot(); i++) {
+            executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    idle.offerLast(launch());
+                    logger.info("Pre-warmed browser session in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms.");
+                } catch (RuntimeException e) {
+                    logger.warn("Browser pre-warm failed, sessions will be launched on demand: " + e.getMessage());
+                }
+            });
+        }
+        executor.shutdown(); // Threads exit once the submitted warm-ups finish
+    }
+
+    /**
+     * Returns a session to the pool after a scenario. The session is reset for the next scenario,
+     * or quit if it has reached its use limit or the reset fails.
+     * @param session The session checked out by the scenario.
+     */
+    public void release(BrowserSession session) {
+        if (session == null) {
+            return;
+        }
+        if (session.getUses() >= maxUses) {
+            logger.info("Retiring browser session after " + session.getUses() + " use(s).");
+            discard(session);
+            return;
+        }
+        try {
+            reset(session.getDriver());
+            idle.offerFirst(session); // Most recently used first, keeps the working set small
+        } catch (Exception e) {
+            logger.warn("Browser session could not be reset, replacing it: " + e.getMessage());
+            discard(session);
+        }
+    }
+
+    /**
+     * Quits a session and frees its slot so a replacement can be launched on demand.
+     * @param session The session to remove from the pool.
+     */
+    public void discard(BrowserSession session) {
+        replacements.incrementAndGet();
+        quitQuietly(session);
+        live.decrementAndGet();
+    }
+
+    /**
+     * Quits every idle session. Checked-out sessions are left to their owners.
+     */
+    public void shutdown() {
+        BrowserSession session;
+        while ((session = idle.pollFirst()) != null) {
+            quitQuietly(session);
+            live.decrementAndGet();
+        }
+        logger.info("Browser pool shut down. " + stats());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getReplacements() {
+        return replacements.get();
+    }
+
+    public String stats() {
+        return "hits=" + hits.get() + ", misses=" + misses.get() + ", replacements=" + replacements.get()
+            + ", live=" + live.get() + ", idle=" + idle.size();
+    }
+
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = live.get();
+            if (current >= maxSize) {
+                return false;
+            }
+        } while (!live.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private BrowserSession launch() {
+        try {
+            return sessionFactory.get();
+        } catch (RuntimeException e) {
+            live.decrementAndGet(); // Give the slot back if the browser never started
+            throw e;
+        }
+    }
+
+    private static void reset(WebDriver driver) {
+        String mainWindow = driver.getWindowHandle();
+        for (String handle : driver.getWindowHandles()) {
+            if (!handle.equals(mainWindow)) {
+                driver.switchTo().window(handle).close(); // Close windows opened by the scenario
+            }
+        }
+        driver.switchTo().window(mainWindow);
+        driver.manage().deleteAllCookies(); // Clear cookies of the current origin
+        ((JavascriptExecutor) driver).executeScript(
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}"); // Clear web storage
+        driver.get("about:blank"); // Leave the application so the next scenario starts clean
+    }
+
+    private static void quitQuietly(BrowserSession session) {
+        try {
+            session.getDriver().quit();
+        } catch (Exception e) {
+            logger.warn("Error while quitting browser session: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package BaseClass;
+
+// Importing Selenium WebDriver classes
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A live browser held by the {@link BrowserPool}.
+ * Tracks how many scenarios have used it so the pool can retire it after a configured number of uses.
+ */
+public class BrowserSession {
+
+    private final WebDriver driver; // Underlying browser session
+    private final NetworkShaper network; // DevTools network blocking/throttling, null when not configured
+    private int uses; // Number of scenarios that have checked this session out
+
+    BrowserSession(WebDriver driver, NetworkShaper network) {
+        this.driver = driver;
+        this.network = network;
+    }
+
+    public WebDriver getDriver() {
+        return driver; // Getter method for WebDriver
+    }
+
+    public NetworkShaper getNetwork() {
+        return network; // Null unless network shaping is configured and supported
+    }
+
+    public int getUses() {
+        return uses; // Number of completed checkouts
+    }
+
+    void markUsed() {
+        uses++; // Called by the pool on every checkout
+    }
+}
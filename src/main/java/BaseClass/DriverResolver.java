@@ -0,0 +1,224 @@
+package BaseClass;
+
+// Importing Log4j logger for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Importing WebDriverManager to automatically handle driver binaries
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves driver binaries (chromedriver, geckodriver, msedgedriver) once per JVM.
+ * Resolved paths are stored in an on-disk cache keyed by browser and browser version, so later runs
+ * skip WebDriverManager's version lookup entirely and air-gapped hosts can run from the cache.
+ */
+public class DriverResolver {
+
+    private static final Logger logger = LogManager.getLogger(DriverResolver.class); // Logger instance for this class
+    private static final String CACHE_FILE = "drivers.properties"; // Index of resolved driver paths
+    private static final Map<String, String> resolved = new ConcurrentHashMap<>(); // Per-JVM memo: browser -> driver path
+    private static final Map<String, String> userDrivers = userDriverProperties(); // -Dwebdriver.*.driver as given at startup
+
+    private final Path cacheDir; // Directory holding the cache index
+    private final String browserVersion; // Browser version used in the cache key, "installed" when not pinned
+    private final boolean offline; // Never contact the network when true
+
+    public DriverResolver(Path cacheDir, String browserVersion, boolean offline) {
+        this.cacheDir = cacheDir;
+        this.browserVersion = browserVersion == null || browserVersion.trim().isEmpty() ? "installed" : browserVersion.trim();
+        this.offline = offline;
+    }
+
+    /**
+     * Makes the driver binary for the given browser available to Selenium by setting its system property.
+     * @param browser One of chrome, firefox or edge.
+     */
+    public void resolve(String browser) {
+        synchronized (resolved) { // One lock for resolve and invalidate, shared by every resolver
+            if (!resolved.containsKey(browser)) {
+                resolved.put(browser, resolveOnce(browser)); // A failed lookup throws and is retried on the next call
+            }
+        }
+    }
+
+    /**
+     * Forgets the cached driver for a browser, e.g. after the browser was updated and the session could not start.
+     * @param browser One of chrome, firefox or edge.
+     */
+    public void invalidate(String browser) {
+        synchronized (resolved) {
+            resolved.remove(browser);
+            String property = driverProperty(browser);
+            if (!userDrivers.containsKey(property)) {
+                System.clearProperty(property); // Set by us from the cache or WebDriverManager, so it is stale too
+            }
+            Properties cache = readCache();
+            if (cache.remove(cacheKey(browser)) != null) {
+                writeCache(cache);
+                logger.info("Invalidated cached driver for " + cacheKey(browser));
+            }
+        }
+    }
+
+    // Called with the lock on 'resolved' held
+    private String resolveOnce(String browser) {
+        long start = System.nanoTime();
+        String property = driverProperty(browser);
+        String key = cacheKey(browser);
+
+        String explicit = userDrivers.get(property); // Not System.getProperty: the cache and WebDriverManager set it too
+        if (explicit != null && Files.isExecutable(Paths.get(explicit))) {
+            logger.info("Using driver from -D" + property + ": " + explicit);
+            return explicit; // Explicit configuration always wins
+        }
+
+        Properties cache = readCache();
+        String cachedPath = cache.getProperty(key);
+        if (cachedPath != null && Files.isExecutable(Paths.get(cachedPath))) {
+            System.setProperty(property, cachedPath);
+            logger.info("Resolved " + key + " from disk cache in " + elapsedMillis(start) + " ms: " + cachedPath);
+            return cachedPath;
+        }
+
+        if (offline) {
+            Path onPath = findOnPath(browser);
+            if (onPath == null) {
+                throw new IllegalStateException("No cached driver for " + key + " and none on the PATH; offline mode "
+                    + "never downloads one. Set -D" + property + " or run once with driver.offline=false.");
+            }
+            System.setProperty(property, onPath.toString()); // Keeps Selenium Manager, which may download, out of the way
+            logger.info("Resolved " + key + " from the PATH (offline) in " + elapsedMillis(start) + " ms: " + onPath);
+            return onPath.toString();
+        }
+
+        WebDriverManager manager = managerFor(browser);
+        if (!"installed".equals(browserVersion)) {
+            manager.browserVersion(browserVersion); // Pin the lookup to the configured version
+        }
+        manager.setup(); // Version lookup and download, paid once per cache key
+        String driverPath = manager.getDownloadedDriverPath();
+        cache.setProperty(key, driverPath);
+        writeCache(cache);
+        logger.info("Resolved " + key + " with WebDriverManager (driver " + manager.getDownloadedDriverVersion()
+            + ") in " + elapsedMillis(start) + " ms: " + driverPath);
+        return driverPath;
+    }
+
+    // Offline fallback: the driver executable in a PATH directory, or null
+    private static Path findOnPath(String browser) {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return null;
+        }
+        boolean windows = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+        String executable = driverExecutable(browser) + (windows ? ".exe" : "");
+        for (String dir : path.split(File.pathSeparator)) {
+            if (dir.isEmpty()) {
+                continue;
+            }
+            Path candidate = Paths.get(dir, executable);
+            if (Files.isExecutable(candidate)) {
+                return candidate.toAbsolutePath();
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> userDriverProperties() {
+        Map<String, String> properties = new HashMap<>();
+        for (String browser : new String[] {"chrome", "firefox", "edge"}) {
+            String property = driverProperty(browser);
+            String value = System.getProperty(property);
+            if (value != null && !value.trim().isEmpty()) {
+                properties.put(property, value.trim());
+            }
+        }
+        return properties;
+    }
+
+    private String cacheKey(String browser) {
+        return browser + "." + browserVersion;
+    }
+
+    private Properties readCache() {
+        Properties cache = new Properties();
+        Path file = cacheDir.resolve(CACHE_FILE);
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                cache.load(in);
+            } catch (IOException e) {
+                logger.warn("Could not read driver cache " + file + ": " + e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    private void writeCache(Properties cache) {
+        Path file = cacheDir.resolve(CACHE_FILE);
+        try {
+            Files.createDirectories(cacheDir);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                cache.store(out, "Resolved WebDriver binaries");
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write driver cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static WebDriverManager managerFor(String browser) {
+        switch (browser) {
+            case "chrome":
+                return WebDriverManager.chromedriver();
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            default:
+                throw new IllegalArgumentException("No driver binary known for browser: " + browser);
+        }
+    }
+
+    private static String driverProperty(String browser) {
+        switch (browser) {
+            case "chrome":
+                return "webdriver.chrome.driver";
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                throw new IllegalArgumentException("No driver binary known for browser: " + browser);
+        }
+    }
+
+    private static String driverExecutable(String browser) {
+        switch (browser) {
+            case "chrome":
+                return "chromedriver";
+            case "firefox":
+                return "geckodriver";
+            case "edge":
+                return "msedgedriver";
+            default:
+                throw new IllegalArgumentException("No driver binary known for browser: " + browser);
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,165 @@
+package BaseClass;
+
+// Importing Log4j logger for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Importing Selenium DevTools classes; raw CDP method names keep this independent of the browser version
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Blocks URL patterns and resource types and optionally throttles the network of a Chromium browser
+ * (Chrome, Edge) through the DevTools protocol. Counts finished requests, transferred bytes and blocked
+ * requests so each scenario can report what it downloaded and what it skipped.
+ */
+public class NetworkShaper {
+
+    private static final Logger logger = LogManager.getLogger(NetworkShaper.class); // Logger instance for this class
+
+    // Throttling profiles: latency ms, download and upload throughput in bytes per second (Chrome DevTools presets)
+    private static final Map<String, long[]> PROFILES = Map.of(
+        "slow-3g", new long[] {400, 50_000, 50_000},
+        "fast-3g", new long[] {150, 200_000, 93_750},
+        "4g", new long[] {20, 500_000, 375_000});
+
+    private final AtomicLong requests = new AtomicLong(); // Requests that finished loading
+    private final AtomicLong bytes = new AtomicLong(); // Encoded bytes received
+    private final AtomicLong blocked = new AtomicLong(); // Requests refused by a URL pattern or resource type
+
+    private NetworkShaper() {
+    }
+
+    /**
+     * @return True when any of "network.block.urls", "network.block.types" or "network.throttle" is set.
+     */
+    static boolean isConfigured(String blockUrls, String blockTypes, String throttle) {
+        return !blockUrls.trim().isEmpty() || !blockTypes.trim().isEmpty()
+            || !(throttle.trim().isEmpty() || "none".equalsIgnoreCase(throttle.trim()));
+    }
+
+    /**
+     * Applies the settings to the browser.
+     * @param blockUrls Comma-separated URL patterns with * wildcards, e.g. "*.woff2,*google-analytics.com*".
+     * @param blockTypes Comma-separated CDP resource types, e.g. "Image,Font,Media".
+     * @param throttle "none", "slow-3g", "fast-3g", "4g" or "latencyMs/downKbps/upKbps".
+     * @return The shaper holding the counters, or null if the browser is not Chromium-based.
+     */
+    static NetworkShaper attach(WebDriver driver, String blockUrls, String blockTypes, String throttle) {
+        if (!(driver instanceof ChromiumDriver)) { // Firefox implements HasDevTools too, but getDevTools() fails there
+            logger.warn("Network blocking and throttling need Chrome or Edge; running " + driver.getClass().getSimpleName() + " unshaped.");
+            return null;
+        }
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        NetworkShaper shaper = new NetworkShaper();
+
+        devTools.addListener(event("Network.loadingFinished"), event -> {
+            shaper.requests.incrementAndGet();
+            shaper.bytes.addAndGet(((Number) event.getOrDefault("encodedDataLength", 0)).longValue());
+        });
+        devTools.addListener(event("Network.loadingFailed"), event -> {
+            if (event.get("blockedReason") != null || String.valueOf(event.get("errorText")).contains("BLOCKED_BY_CLIENT")) {
+                shaper.blocked.incrementAndGet(); // Blocked by URL pattern or failed by the Fetch listener below
+            }
+        });
+        devTools.send(command("Network.enable", Map.of()));
+
+        List<String> urls = split(blockUrls);
+        if (!urls.isEmpty()) {
+            devTools.send(command("Network.setBlockedURLs", Map.of("urls", urls)));
+        }
+
+        List<String> types = split(blockTypes);
+        if (!types.isEmpty()) {
+            List<Map<String, Object>> patterns = types.stream()
+                .map(type -> Map.<String, Object>of("urlPattern", "*", "resourceType", type, "requestStage", "Request"))
+                .collect(Collectors.toList());
+            devTools.addListener(event("Fetch.requestPaused"), event ->
+                devTools.send(command("Fetch.failRequest", Map.of("requestId", event.get("requestId"), "errorReason", "BlockedByClient"))));
+            devTools.send(command("Fetch.enable", Map.of("patterns", patterns))); // Only these types are paused
+        }
+
+        long[] profile = profile(throttle);
+        if (profile != null) {
+            Map<String, Object> conditions = new HashMap<>();
+            conditions.put("offline", false);
+            conditions.put("latency", profile[0]);
+            conditions.put("downloadThroughput", profile[1]);
+            conditions.put("uploadThroughput", profile[2]);
+            devTools.send(command("Network.emulateNetworkConditions", conditions));
+        }
+
+        logger.info("Network shaping: blocked URLs " + urls + ", blocked types " + types + ", throttle "
+            + (profile == null ? "none" : Arrays.toString(profile)));
+        return shaper;
+    }
+
+    /**
+     * @return Requests, bytes and blocked requests since the last call; resets the counters.
+     */
+    public Map<String, Long> drainCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("requests", requests.getAndSet(0));
+        counters.put("bytes", bytes.getAndSet(0));
+        counters.put("blocked", blocked.getAndSet(0));
+        return counters;
+    }
+
+    private static Command<Void> command(String method, Map<String, Object> params) {
+        return new Command<>(method, params);
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static long[] profile(String throttle) {
+        String name = throttle.trim().toLowerCase(Locale.ROOT);
+        if (name.isEmpty() || "none".equals(name)) {
+            return null;
+        }
+        if (PROFILES.containsKey(name)) {
+            return PROFILES.get(name);
+        }
+        String[] parts = name.split("/");
+        if (parts.length != 3) {
+            throw new IllegalStateException("Invalid network.throttle '" + throttle
+                + "': use none, slow-3g, fast-3g, 4g or latencyMs/downKbps/upKbps");
+        }
+        try {
+            return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1]) * 1000 / 8, Long.parseLong(parts[2]) * 1000 / 8};
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid network.throttle '" + throttle + "'", e);
+        }
+    }
+
+    private static List<String> split(String value) {
+        if (value.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+}
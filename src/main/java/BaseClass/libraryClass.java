@@ -1,92 +1,190 @@
 package BaseClass;
 
-// Importing necessary libraries for file handling, time, and properties
-import java.io.FileInputStream;
-import java.io.IOException;
+// Importing necessary libraries for file paths and time
+import java.nio.file.Paths;
 import java.time.Duration;
-import java.util.Properties;
+import java.util.Collections;
+import java.util.Map;
 
 // Importing Log4j logger for logging
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 // Importing Selenium WebDriver classes
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
 
-// Importing WebDriverManager to automatically handle driver binaries
-import io.github.bonigarcia.wdm.WebDriverManager;
+// Importing the shared configuration snapshot and command timing
+import utils.CommandMetrics;
+import utils.ConfigReader;
 
 public class libraryClass {
-    protected static WebDriver driver; // WebDriver instance used across framework
-    protected static Properties config = new Properties(); // Properties object for reading config file
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>(); // One WebDriver per worker thread so scenarios can run in parallel
+    private static final ThreadLocal<BrowserSession> session = new ThreadLocal<>(); // Pooled session owned by the current thread
+    private static BrowserPool pool; // Shared pool of live browsers, created on first use
+    private static DriverResolver driverResolver; // Resolves driver binaries once per JVM
     private static final Logger logger = LogManager.getLogger(libraryClass.class); // Logger instance for this class
 
     public static WebDriver getDriver() {
-        return driver; // Getter method for WebDriver
+        return driver.get(); // Getter method for the current thread's WebDriver
     }
 
-    public static void loadConfig() {
-        try (FileInputStream fis = new FileInputStream("src/test/resources/config/config.properties")) {
-            config.load(fis); // Loading config file from path
-            logger.info("Configuration file loaded successfully."); // Log success
-        } catch (IOException e) {
-            logger.error("Failed to load configuration file: " + e.getMessage(), e); // Log file-related exception
+    public static void initializeBrowser() {
+        try {
+            BrowserSession checkedOut = getPool().checkout(); // Reuse a warm browser or launch a new one
+            session.set(checkedOut);
+            driver.set(checkedOut.getDriver()); // Register driver for the current thread
+            if (checkedOut.getNetwork() != null) {
+                checkedOut.getNetwork().drainCounters(); // Count only this scenario's traffic
+            }
+            logger.info("Browser session checked out (use " + checkedOut.getUses() + "). Pool: " + pool.stats()); // Log success
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            logger.error("Interrupted while waiting for a browser session.", e); // Log exception
         } catch (Exception e) {
-            logger.error("Unexpected error while loading config: " + e.getMessage(), e); // Log any other exception
+            logger.error("Failed to initialize browser: " + e.getMessage(), e); // Log exception
         }
     }
 
-    public static void initializeBrowser() {
+    /**
+     * Starts browsers in the background when "browser.prewarm" is enabled, so startup overlaps
+     * with Cucumber's glue scanning and feature parsing instead of the first scenario.
+     */
+    public static void prewarmBrowsers() {
         try {
-            loadConfig(); // Load configuration settings
-            String browser = config.getProperty("browser", "chrome"); // Get browser name from config
-            logger.info("Selected browser from config: " + browser); // Log selected browser
-            int implicitWait = Integer.parseInt(config.getProperty("implicitWait", "30")); // Get wait time
+            ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+            if (!config.getBoolean("browser.prewarm", false)) {
+                return; // Pre-warming is opt-in
+            }
+            int count = config.getInt("browser.prewarm.count",
+                config.getInt("browser.pool.size", config.getInt("threads", 1))); // Browsers to start
+            logger.info("Pre-warming " + count + " browser session(s) in the background.");
+            getPool().prewarm(count);
+        } catch (Exception e) {
+            logger.error("Failed to start browser pre-warming: " + e.getMessage(), e); // Log exception
+        }
+    }
+
+    /**
+     * @return Requests, bytes and blocked requests of the current scenario so far (and resets them),
+     *         or an empty map when network shaping is off.
+     */
+    public static Map<String, Long> drainNetworkCounters() {
+        BrowserSession checkedOut = session.get();
+        return checkedOut == null || checkedOut.getNetwork() == null ? Collections.emptyMap() : checkedOut.getNetwork().drainCounters();
+    }
+
+    public static void closeBrowser() {
+        try {
+            BrowserSession checkedOut = session.get();
+            if (checkedOut != null) {
+                pool.release(checkedOut); // Reset and return the browser, or quit it if it is worn out
+                logger.info("Browser session released. Pool: " + pool.stats()); // Log success
+            }
+        } catch (Exception e) {
+            logger.error("Error occurred while closing the browser: " + e.getMessage(), e); // Log exception
+        } finally {
+            session.remove(); // Unregister session for the current thread
+            driver.remove(); // Unregister driver for the current thread
+        }
+    }
 
+    private static synchronized BrowserPool getPool() {
+        if (pool == null) {
+            ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+            int threads = config.getInt("threads", 1); // Parallel workers
+            int poolSize = config.getInt("browser.pool.size", threads); // Live browsers
+            int maxUses = config.getInt("browser.session.maxUses", 1); // Scenarios per browser
+            pool = new BrowserPool(libraryClass::launchBrowser, poolSize, maxUses);
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "browser-pool-shutdown")); // Quit idle browsers at exit
+            logger.info("Browser pool created with size " + poolSize + " and max uses " + maxUses);
+        }
+        return pool;
+    }
+
+    private static synchronized DriverResolver getDriverResolver() {
+        if (driverResolver == null) {
+            ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+            String cacheDir = config.getProperty("driver.cache.dir",
+                Paths.get(System.getProperty("user.home"), ".cache", "selenium-bdd-drivers").toString()); // On-disk driver cache
+            driverResolver = new DriverResolver(Paths.get(cacheDir), config.getProperty("browser.version", ""),
+                config.getBoolean("driver.offline", false));
+        }
+        return driverResolver;
+    }
+
+    private static BrowserSession launchBrowser() {
+        ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+        String browser = config.getProperty("browser", "chrome"); // Get browser name from config
+        logger.info("Selected browser from config: " + browser); // Log selected browser
+        Duration implicitWait = config.getDuration("implicitWait", Duration.ofSeconds(30)); // Get wait time
+        String driverBrowser = browser.toLowerCase().startsWith("chrome") ? "chrome" : browser.toLowerCase(); // Binary needed
+        PageLoadStrategy pageLoadStrategy = PageLoadStrategy.fromString(
+            config.getProperty("pageLoadStrategy", "normal").trim().toLowerCase()); // normal, eager or none
+        if (pageLoadStrategy == null) {
+            throw new IllegalArgumentException("Unsupported pageLoadStrategy in config: " + config.getProperty("pageLoadStrategy"));
+        }
+        WebDriver webDriver;
+
+        try {
             switch (browser.toLowerCase()) {
                 case "chrome":
-                    WebDriverManager.chromedriver().setup(); // Setup Chrome driver
-                    driver = new ChromeDriver(); // Launch Chrome
+                    getDriverResolver().resolve(driverBrowser); // Setup Chrome driver
+                    ChromeOptions chromeOptions = new ChromeOptions(); // Create ChromeOptions
+                    chromeOptions.setPageLoadStrategy(pageLoadStrategy); // When driver.get() returns
+                    webDriver = new ChromeDriver(chromeOptions); // Launch Chrome
                     break;
                 case "chrome-headless":
-                    WebDriverManager.chromedriver().setup(); // Setup Chrome driver for headless
+                    getDriverResolver().resolve(driverBrowser); // Setup Chrome driver for headless
                     ChromeOptions options = new ChromeOptions(); // Create ChromeOptions
                     options.addArguments("--headless", "--disable-gpu", "--window-size=1920,1080"); // Add headless args
-                    driver = new ChromeDriver(options); // Launch headless Chrome
+                    options.setPageLoadStrategy(pageLoadStrategy); // When driver.get() returns
+                    webDriver = new ChromeDriver(options); // Launch headless Chrome
                     break;
                 case "firefox":
-                    WebDriverManager.firefoxdriver().setup(); // Setup Firefox driver
-                    driver = new FirefoxDriver(); // Launch Firefox
+                    getDriverResolver().resolve(driverBrowser); // Setup Firefox driver
+                    FirefoxOptions firefoxOptions = new FirefoxOptions(); // Create FirefoxOptions
+                    firefoxOptions.setPageLoadStrategy(pageLoadStrategy); // When driver.get() returns
+                    webDriver = new FirefoxDriver(firefoxOptions); // Launch Firefox
                     break;
                 case "edge":
-                    WebDriverManager.edgedriver().setup(); // Setup Edge driver
-                    driver = new EdgeDriver(); // Launch Edge
+                    getDriverResolver().resolve(driverBrowser); // Setup Edge driver
+                    EdgeOptions edgeOptions = new EdgeOptions(); // Create EdgeOptions
+                    edgeOptions.setPageLoadStrategy(pageLoadStrategy); // When driver.get() returns
+                    webDriver = new EdgeDriver(edgeOptions); // Launch Edge
                     break;
                 default:
-                    logger.error("Unsupported browser specified in config: " + browser); // Log unsupported browser
-                    return;
+                    throw new IllegalArgumentException("Unsupported browser specified in config: " + browser);
             }
-
-            driver.manage().window().maximize(); // Maximize browser window
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait)); // Set implicit wait
-            logger.info("Browser initialized and maximized with implicit wait: " + implicitWait); // Log success
-        } catch (Exception e) {
-            logger.error("Failed to initialize browser: " + e.getMessage(), e); // Log exception
+        } catch (SessionNotCreatedException e) {
+            getDriverResolver().invalidate(driverBrowser); // Cached driver no longer matches the browser, resolve again next time
+            throw e;
         }
-    }
 
-    public static void closeBrowser() {
-        try {
-            if (driver != null) {
-                driver.quit(); // Close and quit browser
-                logger.info("Browser closed successfully."); // Log success
+        webDriver.manage().window().maximize(); // Maximize browser window
+        webDriver.manage().timeouts().implicitlyWait(implicitWait); // Set implicit wait
+        logger.info("Browser launched and maximized with implicit wait: " + implicitWait
+            + " and page load strategy: " + pageLoadStrategy); // Log success
+
+        String blockUrls = config.getProperty("network.block.urls", ""); // URL patterns to refuse
+        String blockTypes = config.getProperty("network.block.types", ""); // Resource types to refuse
+        String throttle = config.getProperty("network.throttle", "none"); // Throttling profile
+        NetworkShaper network = null;
+        if (NetworkShaper.isConfigured(blockUrls, blockTypes, throttle)) {
+            try {
+                network = NetworkShaper.attach(webDriver, blockUrls, blockTypes, throttle); // Null for non-Chromium browsers
+            } catch (RuntimeException e) {
+                webDriver.quit(); // Do not leak the browser when the DevTools setup fails
+                throw e;
             }
-        } catch (Exception e) {
-            logger.error("Error occurred while closing the browser: " + e.getMessage(), e); // Log exception
         }
+        return new BrowserSession(CommandMetrics.getInstance().decorate(webDriver), network); // Time every command when driver.metrics is on
     }
 }
@@ -0,0 +1,112 @@
+package utils;
+
+// Importing Log4j for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Import required Selenium classes for PageFactory element location
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PageFactory locator factory that remembers each resolved element, so repeated calls on a page field
+ * do not send a findElement command every time. Use one factory per page instance together with
+ * {@link CachingFieldDecorator}, and call {@link #invalidate()} whenever the page navigates.
+ * Stale elements are re-resolved by the decorator's proxies.
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+    private static final Logger logger = LogManager.getLogger(CachingElementLocatorFactory.class); // Logger instance for this class
+
+    private final SearchContext searchContext; // Driver (or element) the fields are located from
+    private final Set<CachingElementLocator> locators = ConcurrentHashMap.newKeySet(); // Locators created for this page
+    private final AtomicLong hits = new AtomicLong(); // Lookups answered from the cache
+    private final AtomicLong misses = new AtomicLong(); // Lookups sent to the browser
+
+    public CachingElementLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        CachingElementLocator locator = new CachingElementLocator(new DefaultElementLocator(searchContext, field));
+        locators.add(locator);
+        return locator;
+    }
+
+    /**
+     * Forgets every cached element, e.g. after navigating to a new page.
+     */
+    public void invalidate() {
+        locators.forEach(CachingElementLocator::invalidate);
+        logger.debug("Locator cache cleared: " + stats());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Human-readable counters, e.g. for logging.
+     */
+    public String stats() {
+        return "hits=" + hits.get() + ", misses=" + misses.get();
+    }
+
+    /**
+     * Locator for one field. Single elements are cached until invalidated; lists are always looked up.
+     */
+    public final class CachingElementLocator implements ElementLocator {
+
+        private final ElementLocator delegate; // Performs the actual lookup
+        private volatile WebElement cached; // Last resolved element, null when unknown
+
+        CachingElementLocator(ElementLocator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public WebElement findElement() {
+            WebElement element = cached;
+            if (element != null) {
+                hits.incrementAndGet();
+                return element;
+            }
+            misses.incrementAndGet();
+            element = delegate.findElement();
+            cached = element;
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            misses.incrementAndGet();
+            return delegate.findElements();
+        }
+
+        /**
+         * Forgets the cached element so the next call looks it up again.
+         */
+        public void invalidate() {
+            cached = null;
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package utils;
+
+// Import required Selenium classes for PageFactory proxies
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+/**
+ * Field decorator for {@link CachingElementLocatorFactory}. Each WebElement field becomes a proxy that
+ * uses the cached element and, if the element has gone stale, looks it up again and retries the call once.
+ * Usage: {@code PageFactory.initElements(new CachingFieldDecorator(factory), page)}.
+ * Proxies passed to a script as arguments are unwrapped by the driver, so script calls go through
+ * {@link #retryOnStale(Supplier, Object...)} to get the same retry.
+ */
+public class CachingFieldDecorator extends DefaultFieldDecorator {
+
+    /**
+     * Implemented by every proxy this decorator creates, so callers holding only a WebElement can drop its cached lookup.
+     */
+    public interface CachedElement {
+        void invalidateCachedElement();
+    }
+
+    public CachingFieldDecorator(CachingElementLocatorFactory factory) {
+        super(factory);
+    }
+
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        InvocationHandler handler = new CachingElementHandler(locator);
+        return (WebElement) Proxy.newProxyInstance(
+            loader, new Class<?>[] {WebElement.class, WrapsElement.class, Locatable.class, CachedElement.class}, handler);
+    }
+
+    /**
+     * Runs a script call whose arguments may include cached element proxies. If an argument has gone stale,
+     * drops the cached lookups of all proxy arguments and runs the call once more.
+     * @param call The executeScript/executeAsyncScript call.
+     * @param arguments The script arguments passed to that call.
+     * @return The call's result.
+     */
+    public static <T> T retryOnStale(Supplier<T> call, Object... arguments) {
+        try {
+            return call.get();
+        } catch (StaleElementReferenceException e) {
+            boolean cached = false;
+            for (Object argument : arguments) {
+                if (argument instanceof CachedElement) {
+                    ((CachedElement) argument).invalidateCachedElement();
+                    cached = true;
+                }
+            }
+            if (!cached) {
+                throw e; // Nothing to look up again
+            }
+            return call.get(); // Re-resolve once
+        }
+    }
+
+    private static final class CachingElementHandler implements InvocationHandler {
+
+        private final ElementLocator locator; // Caching locator for the field
+
+        CachingElementHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName()) && method.getParameterCount() == 0) {
+                return "Proxy element for: " + locator; // Same as Selenium's handler, without a lookup
+            }
+            if ("invalidateCachedElement".equals(method.getName())) {
+                invalidate();
+                return null;
+            }
+            try {
+                return call(method, args);
+            } catch (StaleElementReferenceException e) {
+                invalidate();
+                return call(method, args); // Re-resolve once
+            }
+        }
+
+        private void invalidate() {
+            if (locator instanceof CachingElementLocatorFactory.CachingElementLocator) {
+                ((CachingElementLocatorFactory.CachingElementLocator) locator).invalidate();
+            }
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            WebElement element = locator.findElement();
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause(); // Unwrap so callers see the WebDriver exception
+            }
+        }
+    }
+}
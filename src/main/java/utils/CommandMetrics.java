@@ -0,0 +1,166 @@
+package utils;
+
+// Importing Gson to write the metrics file
+import com.google.gson.GsonBuilder;
+
+// Importing Log4j for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Import required Selenium classes for the event-firing decorator
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-scenario, per-command WebDriver latency. The driver is wrapped in Selenium's
+ * {@link EventFiringDecorator} with this class as listener; every call on the driver, its elements,
+ * navigation and options objects is timed and added to a {@link LatencyHistogram} keyed by scenario
+ * and method name (findElement, sendKeys, executeScript, getText, getScreenshotAs, ...).
+ * Calls made outside a scenario (browser launch and pool resets) are not counted.
+ * At JVM exit the histograms are written as JSON and the slowest commands are logged.
+ */
+public class CommandMetrics implements WebDriverListener {
+
+    private static final Logger logger = LogManager.getLogger(CommandMetrics.class); // Logger instance for this class
+    private static CommandMetrics instance; // Shared collector, created on first use
+
+    private final boolean enabled; // Whether drivers are decorated at all
+    private final Path file; // JSON output
+    private final int top; // Commands listed in the summary
+    private final Map<String, Map<String, LatencyHistogram>> scenarios = new ConcurrentHashMap<>(); // Scenario -> command -> latency
+    private final ThreadLocal<String> scenario = new ThreadLocal<>(); // Scenario running on this thread
+    private final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new); // Start times of calls in progress
+
+    private CommandMetrics(boolean enabled, Path file, int top) {
+        this.enabled = enabled;
+        this.file = file;
+        this.top = top;
+    }
+
+    /**
+     * @return The shared collector configured from "driver.metrics", "driver.metrics.file" and "driver.metrics.top".
+     */
+    public static synchronized CommandMetrics getInstance() {
+        if (instance == null) {
+            ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+            instance = new CommandMetrics(
+                config.getBoolean("driver.metrics", false),
+                Paths.get(config.getProperty("driver.metrics.file", "target/cucumber-reports/driver-metrics.json")),
+                config.getInt("driver.metrics.top", 10));
+            if (instance.enabled) {
+                Runtime.getRuntime().addShutdownHook(new Thread(instance::write, "driver-metrics-write")); // Report at exit
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return The driver wrapped so its commands are timed, or the driver itself when metrics are disabled.
+     */
+    public WebDriver decorate(WebDriver driver) {
+        return enabled ? new EventFiringDecorator<WebDriver>(this).decorate(driver) : driver;
+    }
+
+    /**
+     * Attributes the current thread's commands to a scenario until {@link #endScenario()}.
+     */
+    public void startScenario(String name) {
+        if (enabled) {
+            scenario.set(name);
+        }
+    }
+
+    public void endScenario() {
+        scenario.remove();
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        starts.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        stop(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        stop(method); // Failed calls (e.g. a missing element after the implicit wait) still cost time
+    }
+
+    private void stop(Method method) {
+        Deque<Long> pending = starts.get();
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = pending.pop();
+        String name = scenario.get();
+        if (name != null) {
+            scenarios.computeIfAbsent(name, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method.getName(), k -> new LatencyHistogram())
+                .record((System.nanoTime() - start) / 1_000_000.0);
+        }
+    }
+
+    /**
+     * Writes the JSON file and logs the commands with the highest total time across all scenarios.
+     */
+    public synchronized void write() {
+        Map<String, LatencyHistogram> totals = new LinkedHashMap<>();
+        Map<String, Object> perScenario = new LinkedHashMap<>();
+        scenarios.forEach((name, commands) -> {
+            Map<String, Object> scenarioJson = new LinkedHashMap<>();
+            commands.forEach((command, histogram) -> {
+                scenarioJson.put(command, histogram.toMap());
+                totals.computeIfAbsent(command, k -> new LatencyHistogram()).add(histogram);
+            });
+            perScenario.put(name, scenarioJson);
+        });
+
+        List<Map.Entry<String, LatencyHistogram>> slowest = new ArrayList<>(totals.entrySet());
+        slowest.sort((a, b) -> Double.compare(b.getValue().getTotalMillis(), a.getValue().getTotalMillis()));
+        Map<String, Object> totalsJson = new LinkedHashMap<>();
+        StringBuilder summary = new StringBuilder("Slowest WebDriver commands (total ms, count, p95 ms, max ms):");
+        for (int i = 0; i < slowest.size(); i++) {
+            Map.Entry<String, LatencyHistogram> entry = slowest.get(i);
+            LatencyHistogram histogram = entry.getValue();
+            totalsJson.put(entry.getKey(), histogram.toMap());
+            if (i < top) {
+                summary.append(String.format("%n  %-20s %10.1f %7d %9.1f %9.1f", entry.getKey(),
+                    histogram.getTotalMillis(), histogram.getCount(), histogram.percentile(95), histogram.getMaxMillis()));
+            }
+        }
+        logger.info(summary);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("totals", totalsJson);
+        json.put("scenarios", perScenario);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                new GsonBuilder().setPrettyPrinting().create().toJson(json, writer);
+            }
+            logger.info("WebDriver command metrics written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Could not write WebDriver command metrics " + file + ": " + e.getMessage());
+        }
+    }
+}
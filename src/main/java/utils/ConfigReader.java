@@ -6,28 +6,82 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Utility class to read properties from the config.properties file.
  * This ensures that configuration is centralized and easy to manage.
+ * The file is read once per JVM into an immutable snapshot shared by page objects and the driver factory.
+ * Environment variables (e.g. BROWSER, BROWSER_POOL_SIZE) override the file, also for keys it leaves unset,
+ * and system properties (e.g. -Dbrowser=firefox) override both, so CI can change settings without editing the file.
  */
-public class ConfigReader {
+public final class ConfigReader {
 
-    private final Properties properties; // Stores loaded key-value pairs from config file
     private static final Logger logger = LogManager.getLogger(ConfigReader.class); // Logger for this class
     private static final String CONFIG_PATH = "src/test/resources/config/config.properties"; // Path to the config file
+    private static volatile ConfigReader instance; // Shared snapshot, loaded on first use
 
-    public ConfigReader() {
-        properties = new Properties(); // Creating empty Properties object
+    private final Map<String, String> properties; // Immutable merged key-value pairs
+    private final Map<String, Object> typedValues = new ConcurrentHashMap<>(); // "type:key" -> value parsed once
+    private final Map<String, Optional<String>> environment = new ConcurrentHashMap<>(); // Keys not in the file -> env value
+
+    private ConfigReader(Map<String, String> properties) {
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * @return The configuration snapshot for this JVM, loading it on first use.
+     */
+    public static ConfigReader getInstance() {
+        ConfigReader config = instance;
+        if (config == null) {
+            synchronized (ConfigReader.class) {
+                config = instance;
+                if (config == null) {
+                    config = load();
+                    instance = config;
+                }
+            }
+        }
+        return config;
+    }
+
+    private static ConfigReader load() {
+        Properties file = new Properties(); // Creating empty Properties object
 
         try (FileInputStream fis = new FileInputStream(CONFIG_PATH)) {
-            properties.load(fis); // Loading properties from the file
+            file.load(fis); // Loading properties from the file
             logger.info("Configuration properties loaded successfully from: " + CONFIG_PATH); // Log success
         } catch (IOException e) {
             logger.error("Failed to load configuration properties file.", e); // Log failure
             throw new RuntimeException("Configuration properties file not found at " + CONFIG_PATH); // Stop test if config not found
         }
+
+        Map<String, String> merged = new HashMap<>();
+        for (String key : file.stringPropertyNames()) {
+            merged.put(key, file.getProperty(key).trim());
+            String envValue = System.getenv(environmentName(key));
+            if (envValue != null) {
+                merged.put(key, envValue.trim());
+                logger.info("Property '" + key + "' overridden by environment variable.");
+            }
+        }
+        Properties system = System.getProperties();
+        for (String key : system.stringPropertyNames()) {
+            if (merged.containsKey(key)) {
+                logger.info("Property '" + key + "' overridden by system property.");
+            }
+            merged.put(key, system.getProperty(key).trim()); // -Dkey=value wins, also for keys not in the file
+        }
+        return new ConfigReader(merged);
     }
 
     /**
@@ -36,10 +90,102 @@ public class ConfigReader {
      * @return The value of the property as a String. Returns null if key is not found.
      */
     public String getProperty(String key) {
-        String value = properties.getProperty(key); // Get value for the provided key
+        String value = lookup(key); // Get value for the provided key
         if (value == null) {
             logger.warn("Property with key '" + key + "' not found in config file."); // Warn if key not present
         }
         return value; // Return the value (or null)
     }
+
+    /**
+     * Gets a property value, falling back to a default when the key is missing or blank.
+     */
+    public String getProperty(String key, String defaultValue) {
+        String value = lookup(key);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    /**
+     * Gets an integer property, parsed once per JVM.
+     */
+    public int getInt(String key, int defaultValue) {
+        return typed(key, "int", defaultValue, Integer::valueOf);
+    }
+
+    /**
+     * Gets a long property, parsed once per JVM.
+     */
+    public long getLong(String key, long defaultValue) {
+        return typed(key, "long", defaultValue, Long::valueOf);
+    }
+
+    /**
+     * Gets a decimal property, parsed once per JVM.
+     */
+    public double getDouble(String key, double defaultValue) {
+        return typed(key, "double", defaultValue, Double::valueOf);
+    }
+
+    /**
+     * Gets a boolean property ("true"/"false"), parsed once per JVM.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return typed(key, "boolean", defaultValue, Boolean::valueOf);
+    }
+
+    /**
+     * Gets a duration property, parsed once per JVM. Plain numbers are seconds, as in "timeout=25";
+     * the suffixes "ms", "s" and "m" are also accepted (e.g. "500ms").
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        return typed(key, "duration", defaultValue, ConfigReader::parseDuration);
+    }
+
+    // File and system properties were merged at load; keys missing from both (e.g. commented out in the file)
+    // can still come from the environment, looked up once per key
+    private String lookup(String key) {
+        String value = properties.get(key);
+        if (value != null) {
+            return value;
+        }
+        return environment.computeIfAbsent(key, k -> {
+            String envValue = System.getenv(environmentName(k));
+            if (envValue == null) {
+                return Optional.empty();
+            }
+            logger.info("Property '" + k + "' set by environment variable.");
+            return Optional.of(envValue.trim());
+        }).orElse(null);
+    }
+
+    private static String environmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_'); // browser.pool.size -> BROWSER_POOL_SIZE
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T typed(String key, String type, T defaultValue, Function<String, T> parser) {
+        String value = lookup(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return (T) typedValues.computeIfAbsent(type + ":" + key, k -> parser.apply(value));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Invalid value '" + value + "' for property '" + key + "'", e);
+        }
+    }
+
+    private static Duration parseDuration(String value) {
+        String text = value.toLowerCase(Locale.ROOT);
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2).trim()));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1).trim()));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1).trim()));
+        }
+        return Duration.ofSeconds(Long.parseLong(text)); // Plain numbers are seconds
+    }
 }
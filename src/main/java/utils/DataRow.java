@@ -0,0 +1,177 @@
+package utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map view of one cached Excel row, keyed by column header.
+ * The row reads its values from the shared sheet until the first write, then copies them,
+ * so steps can blank out or remove fields without affecting other scenarios. Duplicate headers map to the
+ * last column with that name, as they did when rows were HashMaps.
+ */
+final class DataRow extends AbstractMap<String, String> {
+
+    private final SheetHeaders headers; // Shared headers
+    private final SheetData sheet; // Source of the values until the first write, null for owned rows
+    private final int row; // Data row index within the sheet
+    private String[] values; // Private copy of the values, created on the first write
+    private Map<String, String> extra; // Keys that are not sheet headers, created on demand
+    private BitSet removed; // Header columns removed from this row, created on demand
+
+    DataRow(SheetData sheet, int row) {
+        this.headers = sheet.headers();
+        this.sheet = sheet;
+        this.row = row;
+    }
+
+    DataRow(SheetHeaders headers, String[] values) {
+        this.headers = headers;
+        this.sheet = null;
+        this.row = -1;
+        this.values = values; // Row owns this array, e.g. a row read by ExcelStreamReader
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = headers.indexOf(key);
+        if (index >= 0) {
+            return isRemoved(index) ? null : value(index);
+        }
+        return extra == null ? null : extra.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int index = headers.indexOf(key);
+        return index >= 0 ? !isRemoved(index) : extra != null && extra.containsKey(key);
+    }
+
+    @Override
+    public String put(String key, String value) {
+        int index = headers.indexOf(key);
+        if (index < 0) {
+            if (extra == null) {
+                extra = new LinkedHashMap<>();
+            }
+            return extra.put(key, value);
+        }
+        if (values == null) {
+            values = new String[headers.size()]; // Copy on first write
+            for (int i = 0; i < values.length; i++) {
+                values[i] = sheet.value(row, i);
+            }
+        }
+        String previous = isRemoved(index) ? null : values[index];
+        values[index] = value;
+        if (removed != null) {
+            removed.clear(index); // Put back after a remove
+        }
+        return previous;
+    }
+
+    @Override
+    public String remove(Object key) {
+        int index = headers.indexOf(key);
+        if (index < 0) {
+            return extra == null ? null : extra.remove(key);
+        }
+        if (isRemoved(index)) {
+            return null;
+        }
+        String previous = value(index);
+        removeColumn(index);
+        return previous;
+    }
+
+    private String value(int index) {
+        return values != null ? values[index] : sheet.value(row, index);
+    }
+
+    private boolean isRemoved(int index) {
+        return removed != null && removed.get(index);
+    }
+
+    private void removeColumn(int index) {
+        if (removed == null) {
+            removed = new BitSet(headers.size());
+        }
+        removed.set(index); // The shared sheet is untouched, so no copy is needed
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return headers.keyCount() - (removed == null ? 0 : removed.cardinality()) + (extra == null ? 0 : extra.size());
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+
+        private final String[] names = headers.names();
+        private final Iterator<Entry<String, String>> extraEntries = extra == null ? null : extra.entrySet().iterator();
+        private int position = skip(0); // Next header column that is a live key
+        private int last = -1; // Header column returned last, -2 after an extra entry, -1 when nothing can be removed
+
+        @Override
+        public boolean hasNext() {
+            return position < names.length || (extraEntries != null && extraEntries.hasNext());
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (position < names.length) {
+                final String key = names[position];
+                last = position;
+                position = skip(position + 1);
+                return new SimpleEntry<String, String>(key, get(key)) {
+                    @Override
+                    public String setValue(String value) {
+                        super.setValue(value);
+                        return put(key, value);
+                    }
+                };
+            }
+            if (extraEntries != null && extraEntries.hasNext()) {
+                last = -2;
+                return extraEntries.next();
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+            if (last == -2) {
+                extraEntries.remove();
+            } else {
+                removeColumn(last);
+            }
+            last = -1;
+        }
+
+        // Skips removed columns and earlier columns shadowed by a later duplicate header
+        private int skip(int from) {
+            int next = from;
+            while (next < names.length && (isRemoved(next) || !headers.isKey(next))) {
+                next++;
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package utils;
+
+// Importing Log4j for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Import required Selenium classes for script execution and fallback waits
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Event-driven replacement for {@link WebDriverWait} with {@link ExpectedConditions}.
+ * A single asynchronous script watches the page with a MutationObserver and returns as soon as the
+ * element's visibility or text matches, instead of polling getText() over WebDriver every 500 ms.
+ * Falls back to a regular WebDriverWait when the browser cannot run the observer.
+ * Every wait is recorded in the {@link WaitProfiler} under "name:condition", which can also shorten the
+ * timeout to what that wait historically needs.
+ */
+public class DomWait {
+
+    private static final Logger logger = LogManager.getLogger(DomWait.class); // Logger instance for this class
+    private static final long MAX_SCRIPT_MILLIS = 20_000; // Stay below the driver's default 30 s script timeout
+
+    // arguments: target element or element ID, mode (visible | text | nonEmpty), expected text, timeout in ms, callback.
+    // Mode 'ready' takes a list of element IDs as target and comma-separated global function names as expected text.
+    // Resolves with {element, text} on success, {timeout: true} when the time is up, or {unsupported: true}.
+    private static final String WAIT_SCRIPT =
+        "var target = arguments[0], mode = arguments[1], expected = arguments[2], timeout = arguments[3];" +
+        "var done = arguments[arguments.length - 1];" +
+        "function check() {" +
+        "  if (mode === 'ready') {" +
+        "    var ready = target.every(function (id) { return document.getElementById(id); }) &&" +
+        "      expected.split(',').every(function (f) { return !f || typeof window[f] === 'function'; });" +
+        "    return ready ? { text: document.readyState } : null;" +
+        "  }" +
+        "  var el = typeof target === 'string' ? document.getElementById(target) : target;" +
+        "  if (!el || el.getClientRects().length === 0 || getComputedStyle(el).visibility === 'hidden') { return null; }" +
+        "  var text = el.innerText.trim();" +
+        "  if (mode === 'visible' || (mode === 'text' && text.indexOf(expected) >= 0) || (mode === 'nonEmpty' && text.length > 0)) {" +
+        "    return { element: el, text: text };" +
+        "  }" +
+        "  return null;" +
+        "}" +
+        "var result = check();" +
+        "if (result) { done(result); return; }" +
+        "if (typeof MutationObserver === 'undefined') { done({ unsupported: true }); return; }" +
+        "var finished = false, observer, timer, poll;" +
+        "function finish(r) {" +
+        "  if (finished) { return; }" +
+        "  finished = true; observer.disconnect(); clearTimeout(timer); clearInterval(poll); done(r);" +
+        "}" +
+        "observer = new MutationObserver(function () { var r = check(); if (r) { finish(r); } });" +
+        "observer.observe(document.documentElement, { subtree: true, childList: true, characterData: true, attributes: true });" +
+        "poll = setInterval(function () { var r = check(); if (r) { finish(r); } }, 100);" + // In-page safety net for CSS-only changes
+        "timer = setTimeout(function () { finish({ timeout: true }); }, timeout);";
+
+    private final WebDriver driver; // Browser to wait on
+    private final Duration timeout; // Maximum time to wait
+    private final WaitProfiler profiler = WaitProfiler.getInstance(); // Records waits and derives timeouts
+
+    public DomWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Waits until the element is visible. Drop-in for {@code wait.until(ExpectedConditions.visibilityOf(element))}.
+     * @return The element.
+     */
+    public WebElement visibilityOf(WebElement element) {
+        return visibilityOf(element, "element");
+    }
+
+    /**
+     * Same as {@link #visibilityOf(WebElement)}, profiled under the given name (usually the element's ID).
+     */
+    public WebElement visibilityOf(WebElement element, String name) {
+        return (WebElement) await(element, "visible", "", name, () -> "visibility of " + element).get("element");
+    }
+
+    /**
+     * Waits until an element with the given ID exists and is visible.
+     * Drop-in for {@code wait.until(ExpectedConditions.visibilityOfElementLocated(By.id(id)))}.
+     * @return The element.
+     */
+    public WebElement visibilityOfElementWithId(String id) {
+        return (WebElement) await(id, "visible", "", id, () -> "visibility of element with id " + id).get("element");
+    }
+
+    /**
+     * Waits until the element's visible text contains the expected text.
+     * Drop-in for {@code wait.until(ExpectedConditions.textToBePresentInElement(element, text))}.
+     * @return The element's trimmed text at the moment the condition matched.
+     */
+    public String textToBePresentInElement(WebElement element, String text) {
+        return textToBePresentInElement(element, text, "element");
+    }
+
+    /**
+     * Same as {@link #textToBePresentInElement(WebElement, String)}, profiled under the given name.
+     */
+    public String textToBePresentInElement(WebElement element, String text, String name) {
+        return (String) await(element, "text", text, name, () -> "text '" + text + "' to be present in " + element).get("text");
+    }
+
+    /**
+     * Waits until the element is visible and has non-empty text.
+     * @return The element's trimmed text at the moment the condition matched.
+     */
+    public String nonEmptyText(WebElement element) {
+        return nonEmptyText(element, "element");
+    }
+
+    /**
+     * Same as {@link #nonEmptyText(WebElement)}, profiled under the given name.
+     */
+    public String nonEmptyText(WebElement element, String name) {
+        return (String) await(element, "nonEmpty", "", name, () -> "non-empty text in " + element).get("text");
+    }
+
+    /**
+     * Waits until every element ID exists and every named global function is defined, e.g. a form's submit
+     * handler. Pairs with the "eager" and "none" page-load strategies, where driver.get() returns before
+     * the page has finished loading.
+     * @return The document's readyState at the moment the condition matched.
+     */
+    public String pageReady(List<String> ids, List<String> functions) {
+        return (String) await(ids, "ready", String.join(",", functions), "page",
+            () -> "elements " + ids + " and functions " + functions).get("text");
+    }
+
+    private Map<String, Object> await(Object target, String mode, String expected, String name, Supplier<String> description) {
+        String key = name + ":" + mode;
+        Duration limit = profiler.timeoutFor(key, timeout);
+        long start = System.nanoTime();
+        try {
+            Map<String, Object> result = await(target, mode, expected, start + limit.toNanos(), limit, description);
+            profiler.record(key, (System.nanoTime() - start) / 1_000_000, false);
+            return result;
+        } catch (TimeoutException e) {
+            profiler.record(key, (System.nanoTime() - start) / 1_000_000, true);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> await(Object target, String mode, String expected, long deadline, Duration limit,
+                                      Supplier<String> description) {
+        long start = System.nanoTime();
+
+        while (true) {
+            long remaining = (deadline - System.nanoTime()) / 1_000_000;
+            if (remaining <= 0) {
+                throw new TimeoutException("Expected condition failed: waiting for " + description.get()
+                    + " (tried for " + limit.toMillis() + " ms)");
+            }
+
+            Map<String, Object> result;
+            try {
+                long scriptMillis = Math.min(remaining, MAX_SCRIPT_MILLIS);
+                result = CachingFieldDecorator.retryOnStale(() -> (Map<String, Object>) ((JavascriptExecutor) driver)
+                    .executeAsyncScript(WAIT_SCRIPT, target, mode, expected, scriptMillis), target); // Resolves on DOM change
+            } catch (ScriptTimeoutException | JavascriptException e) {
+                logger.debug("DOM wait script failed, falling back to polling: " + e.getMessage());
+                return poll(target, mode, expected, deadline);
+            }
+
+            if (result != null && Boolean.TRUE.equals(result.get("unsupported"))) {
+                return poll(target, mode, expected, deadline);
+            }
+            if (result != null && !Boolean.TRUE.equals(result.get("timeout"))) {
+                logger.debug("Condition met in " + (System.nanoTime() - start) / 1_000_000 + " ms: " + mode);
+                return result;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> poll(Object target, String mode, String expected, long deadline) {
+        Duration remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+        WebDriverWait wait = new WebDriverWait(driver, remaining);
+        if ("ready".equals(mode)) {
+            wait.ignoring(JavascriptException.class); // The page may still be replacing the previous document
+            Object state = wait.until(d -> ((JavascriptExecutor) d).executeScript(
+                "var ids = arguments[0], functions = arguments[1];" +
+                "return ids.every(function (id) { return document.getElementById(id); }) &&" +
+                "  functions.split(',').every(function (f) { return !f || typeof window[f] === 'function'; })" +
+                "  ? document.readyState : null;", (List<String>) target, expected));
+            return Map.of("text", state);
+        }
+        WebElement element = target instanceof String
+            ? wait.until(ExpectedConditions.visibilityOfElementLocated(By.id((String) target)))
+            : wait.until(ExpectedConditions.visibilityOf((WebElement) target));
+        if ("text".equals(mode)) {
+            wait.until(ExpectedConditions.textToBePresentInElement(element, expected));
+        } else if ("nonEmpty".equals(mode)) {
+            wait.until(d -> !element.getText().trim().isEmpty());
+        }
+        return Map.of("element", element, "text", element.getText().trim());
+    }
+}
@@ -1,19 +1,92 @@
 package utils;
 
 // Import required Selenium classes for JavaScript execution and element handling
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Provides utility methods for interacting with WebElements,
  * such as scrolling and performing JavaScript clicks.
  */
 public class ElementUtils {
 
+    /** Result reported by {@link #fillFields} for a field that was set. */
+    public static final String FILLED = "ok";
+
+    /** Result reported by {@link #fillFields} for a field the browser rejected from the script and that was typed instead. */
+    public static final String TYPED = "typed";
+
+    // Sets every field in one round trip and fires the events a user's typing would (keyup, input, change, blur).
+    // Text is appended like sendKeys; selects match visible text like Select.selectByVisibleText; radios/checkboxes are clicked.
+    private static final String FILL_SCRIPT =
+        "var values = arguments[0], results = {};" +
+        "Object.keys(values).forEach(function (id) {" +
+        "  var el = document.getElementById(id), value = values[id];" +
+        "  if (!el) { results[id] = 'missing'; return; }" +
+        "  if (el.tagName === 'SELECT') {" +
+        "    var option = Array.prototype.filter.call(el.options, function (o) { return o.text.trim() === value.trim(); })[0];" +
+        "    if (!option) { results[id] = 'no-option'; return; }" +
+        "    el.focus(); el.value = option.value;" +
+        "  } else if (el.type === 'radio' || el.type === 'checkbox') {" +
+        "    if (!el.checked) { el.click(); }" +
+        "    results[id] = 'ok'; return;" +
+        "  } else {" +
+        "    el.focus();" +
+        "    var proto = el.tagName === 'TEXTAREA' ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;" +
+        "    var expected = el.value + value;" +
+        "    Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, expected);" +
+        "    el.dispatchEvent(new KeyboardEvent('keyup', { bubbles: true }));" +
+        "    if (el.value !== expected) { results[id] = 'rejected'; }" +
+        "  }" +
+        "  el.dispatchEvent(new Event('input', { bubbles: true }));" +
+        "  el.dispatchEvent(new Event('change', { bubbles: true }));" +
+        "  el.blur();" +
+        "  results[id] = results[id] || 'ok';" +
+        "});" +
+        "return results;";
+
+    // Reads the visible text of several elements in one round trip; null marks an element that does not exist.
+    // Hidden elements read as "", matching WebElement.getText().
+    private static final String READ_TEXTS_SCRIPT =
+        "var texts = {};" +
+        "arguments[0].forEach(function (id) {" +
+        "  var el = document.getElementById(id);" +
+        "  if (!el) { texts[id] = null; return; }" +
+        "  var visible = el.getClientRects().length > 0 && getComputedStyle(el).visibility !== 'hidden';" +
+        "  texts[id] = visible ? el.innerText.trim() : '';" +
+        "});" +
+        "return texts;";
+
+    // Runs an action synchronously and reports back only after the event loop has had a turn, so work the
+    // handler queued as a microtask or zero-delay timer has run too. arguments: target element or ID
+    // (null for a plain script), scroll offset in px, script body; the last argument is the callback.
+    private static final String SETTLE_SCRIPT =
+        "var target = arguments[0], offset = arguments[1], body = arguments[2], done = arguments[arguments.length - 1];" +
+        "var el = typeof target === 'string' ? document.getElementById(target) : target;" +
+        "if (body === null && !el) { done({ error: 'No element to click: ' + target }); return; }" +
+        "if (el) {" +
+        "  var y = el.getBoundingClientRect().top + window.pageYOffset - offset;" +
+        "  window.scrollTo({ top: y, behavior: 'instant' });" + // No smooth scroll, nothing left in flight
+        "}" +
+        "var start = performance.now();" +
+        "try { if (body === null) { el.click(); } else { new Function(body)(); } }" +
+        "catch (e) { done({ error: String(e) }); return; }" +
+        "var handled = performance.now() - start;" +
+        "setTimeout(function () { done({ handlerMillis: handled, settledMillis: performance.now() - start }); }, 0);";
+
+    private final WebDriver driver; // Browser, for typing fields the fill script could not set
     private final JavascriptExecutor js; // JavaScript executor for custom browser actions
 
     public ElementUtils(WebDriver driver) {
+        this.driver = driver;
         this.js = (JavascriptExecutor) driver; // Casting WebDriver to JavascriptExecutor
     }
 
@@ -23,7 +96,8 @@ public class ElementUtils {
      * @param element The WebElement to scroll to.
      */
     public void scrollToElement(WebElement element) {
-        js.executeScript("arguments[0].scrollIntoView(true);", element); // Scroll element into view using JS
+        CachingFieldDecorator.retryOnStale(
+            () -> js.executeScript("arguments[0].scrollIntoView(true);", element), element); // Scroll element into view using JS
         try {
             Thread.sleep(500); // A small pause to ensure scrolling is complete
         } catch (InterruptedException e) {
@@ -37,6 +111,95 @@ public class ElementUtils {
      * @param element The WebElement to click.
      */
     public void clickElementByJs(WebElement element) {
-        js.executeScript("arguments[0].click();", element); // Perform click via JavaScript
+        CachingFieldDecorator.retryOnStale(
+            () -> js.executeScript("arguments[0].click();", element), element); // Perform click via JavaScript
+    }
+
+    /**
+     * Scrolls an element into view instantly and clicks it, returning only after its click handlers have run.
+     * Unlike a scroll followed by setTimeout(click), the click has happened when this method returns.
+     * @param elementId ID of the element to click.
+     * @param yOffset Pixels to leave above the element after scrolling (0 puts it at the top of the viewport).
+     * @return Time in milliseconds the page spent in the click handlers, a clean submit-latency measurement.
+     */
+    public double clickAndSettle(String elementId, int yOffset) {
+        return settle(elementId, yOffset, null);
+    }
+
+    /**
+     * Same as {@link #clickAndSettle(String, int)} for an element already located.
+     */
+    public double clickAndSettle(WebElement element, int yOffset) {
+        return settle(element, yOffset, null);
+    }
+
+    /**
+     * Runs a script (e.g. a page's submit function) and returns only after it has completed.
+     * @param script Script body to run in the page.
+     * @return Time in milliseconds the script took.
+     */
+    public double runAndSettle(String script) {
+        return settle(null, 0, script);
+    }
+
+    @SuppressWarnings("unchecked")
+    private double settle(Object target, int yOffset, String script) {
+        Map<String, Object> result = CachingFieldDecorator.retryOnStale(
+            () -> (Map<String, Object>) js.executeAsyncScript(SETTLE_SCRIPT, target, yOffset, script), target);
+        if (result.get("error") != null) {
+            throw new JavascriptException(String.valueOf(result.get("error")));
+        }
+        return ((Number) result.get("handlerMillis")).doubleValue();
+    }
+
+    /**
+     * Fills several form fields with a single script call instead of one WebDriver command per keystroke batch.
+     * Fires the same keyup/input/change/blur events as typing, so the page's validators still run.
+     * A field whose value the browser refuses from a script (e.g. a date in a locale format) is typed instead,
+     * so it ends up with whatever the typed path would have entered.
+     * @param valuesById Field element IDs mapped to the text to enter (for radios and checkboxes, any value clicks them).
+     * @return Per-field result: "ok", "typed" (refused by the script, then typed), "missing" (no such element)
+     *         or "no-option" (select has no such text).
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> fillFields(Map<String, String> valuesById) {
+        Object results = js.executeScript(FILL_SCRIPT, valuesById); // One round trip for the whole form
+        Map<String, String> filled = new LinkedHashMap<>((Map<String, String>) results);
+        for (Map.Entry<String, String> result : filled.entrySet()) {
+            if ("rejected".equals(result.getValue())) {
+                driver.findElement(By.id(result.getKey())).sendKeys(valuesById.get(result.getKey())); // Same keys as the typed path
+                result.setValue(TYPED);
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Reads the visible text of several elements with a single script call, without waiting for any of them.
+     * @param ids Element IDs to read.
+     * @return Element ID mapped to its trimmed visible text, or to null if no such element exists.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> readTexts(List<String> ids) {
+        Map<String, String> texts = (Map<String, String>) js.executeScript(READ_TEXTS_SCRIPT, ids); // One round trip
+        Map<String, String> ordered = new LinkedHashMap<>();
+        for (String id : ids) {
+            ordered.put(id, texts.get(id)); // Keep the caller's order
+        }
+        return ordered;
+    }
+
+    /**
+     * @param results Results returned by {@link #fillFields}.
+     * @return Field IDs that could not be filled, in the form "id (reason)".
+     */
+    public static List<String> unfilledFields(Map<String, String> results) {
+        List<String> unfilled = new ArrayList<>();
+        for (Map.Entry<String, String> result : results.entrySet()) {
+            if (!FILLED.equals(result.getValue()) && !TYPED.equals(result.getValue())) {
+                unfilled.add(result.getKey() + " (" + result.getValue() + ")");
+            }
+        }
+        return unfilled;
     }
 }
@@ -1,33 +1,45 @@
 package utils;
 
-// Importing Apache POI classes to work with Excel files
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-
 // Importing Log4j for logging
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class to read test data from an Excel file.
  * This supports a data-driven testing approach.
+ * Parsed sheets are cached per JVM (keyed by file, sheet and modification time), so each
+ * workbook is parsed once per run no matter how many steps read from it.
+ * Sheets are parsed with {@link ExcelStreamReader}, so the workbook DOM is never built, and compiled into
+ * memory-mapped {@link SheetSnapshot} files so later JVMs can skip POI entirely.
  */
 public class ExcelReader {
 
     private static final Logger logger = LogManager.getLogger(ExcelReader.class); // Logger instance for this class
+    private static final Map<String, SheetData> cache = new ConcurrentHashMap<>(); // "path::sheet" -> parsed sheet
+    private static final boolean SNAPSHOTS_ENABLED = ConfigReader.getInstance().getBoolean("testdata.snapshot", true); // Binary snapshots on/off
+    private static final Path SNAPSHOT_DIR = Paths.get(
+        ConfigReader.getInstance().getProperty("testdata.snapshot.dir", "target/testdata-snapshots")); // Compiled sheets
 
     /**
      * Reads data from a specific sheet in an Excel file and returns it as a list of maps.
      * Each map in the list represents a data row, with column headers as keys.
      * This structure is ideal for iterating through test data sets.
+     * The maps are copy-on-write views of the cached sheet, so callers may modify them freely.
      *
      * @param filePath The path to the Excel file.
      * @param sheetName The name of the sheet to read from.
@@ -35,55 +47,119 @@ public class ExcelReader {
      * @throws IOException If the file cannot be found or read.
      */
     public List<Map<String, String>> getData(String filePath, String sheetName) throws IOException {
-        logger.info("Reading data from Excel file: " + filePath + ", Sheet: " + sheetName); // Log read start
-        List<Map<String, String>> dataList = new ArrayList<>(); // List to hold all rows as maps
-
-        FileInputStream fis = new FileInputStream(filePath); // Open the Excel file
-        XSSFWorkbook workbook = new XSSFWorkbook(fis); // Create workbook instance
-        XSSFSheet sheet = workbook.getSheet(sheetName); // Get specific sheet
-
-        if (sheet == null) {
-            logger.error("Sheet '" + sheetName + "' not found in the workbook."); // Log missing sheet
-            workbook.close();
-            fis.close();
-            return dataList; // Return empty list
+        SheetData sheet = getSheet(filePath, sheetName);
+        List<Map<String, String>> dataList = new ArrayList<>(sheet.rowCount()); // List to hold all rows as maps
+        for (int i = 0; i < sheet.rowCount(); i++) {
+            dataList.add(new DataRow(sheet, i)); // View over the cached row
         }
+        return dataList; // Return complete list of row data
+    }
 
-        Row headerRow = sheet.getRow(0); // First row is header row
-        if (headerRow == null) {
-            logger.error("Header row is missing in the sheet: " + sheetName); // Log missing headers
-            workbook.close();
-            fis.close();
-            return dataList;
+    /**
+     * Reads a single data row without building maps for the rest of the sheet.
+     *
+     * @param filePath The path to the Excel file.
+     * @param sheetName The name of the sheet to read from.
+     * @param rowNumber The 1-based data row number (the header row is not counted).
+     * @return A copy-on-write map of the row, with column headers as keys.
+     * @throws IOException If the file cannot be found or read.
+     */
+    public Map<String, String> getRow(String filePath, String sheetName, int rowNumber) throws IOException {
+        SheetData sheet = getSheet(filePath, sheetName);
+        if (rowNumber < 1 || rowNumber > sheet.rowCount()) {
+            throw new IndexOutOfBoundsException("Row " + rowNumber + " not found in sheet '" + sheetName
+                + "', it has " + sheet.rowCount() + " data row(s)."); // Same failure as list.get() before
         }
+        return new DataRow(sheet, rowNumber - 1);
+    }
 
-        DataFormatter formatter = new DataFormatter(); // Formatter to get cell values as strings
+    /**
+     * Streams the rows of a sheet without caching them, holding only one row in memory at a time.
+     * Use this for large data sheets; the stream must be closed to release the workbook.
+     *
+     * @param filePath The path to the Excel file.
+     * @param sheetName The name of the sheet to read from.
+     * @return A lazy stream of rows, with column headers as keys.
+     * @throws IOException If the file cannot be found or read.
+     */
+    public Stream<Map<String, String>> streamData(String filePath, String sheetName) throws IOException {
+        ExcelStreamReader reader = new ExcelStreamReader(Paths.get(filePath), sheetName);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
 
-        for (int i = 1; i <= sheet.getLastRowNum(); i++) { // Start from row 1 (skip header)
-            Row row = sheet.getRow(i);
-            if (row == null) {
-                logger.warn("Skipping empty row at index: " + i); // Skip blank rows
-                continue;
-            }
+    private SheetData getSheet(String filePath, String sheetName) throws IOException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        long lastModified = Files.getLastModifiedTime(path).toMillis(); // Reparse only if the file changed
+        String key = path + "::" + sheetName;
+        try {
+            return cache.compute(key, (k, cached) -> {
+                if (cached != null && cached.lastModified() == lastModified) {
+                    return cached; // Parsed earlier in this run
+                }
+                try {
+                    return loadSheet(path, sheetName, lastModified);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-            Map<String, String> rowMap = new HashMap<>(); // Map to hold one row's key-value data
+    private static SheetData loadSheet(Path path, String sheetName, long lastModified) throws IOException {
+        if (!SNAPSHOTS_ENABLED) {
+            return parseSheet(path, sheetName, lastModified);
+        }
 
-            for (int j = 0; j < headerRow.getLastCellNum(); j++) {
-                String key = headerRow.getCell(j).getStringCellValue(); // Get column header
-                String value = formatter.formatCellValue(row.getCell(j)); // Get cell value as string
-                rowMap.put(key, value); // Add key-value to map
-                logger.debug("Row " + i + " - [" + key + " : " + value + "]"); // Log each entry for debugging
-            }
+        long start = System.nanoTime();
+        byte[] sourceHash = SheetSnapshot.hash(path); // Snapshots are only valid for identical workbook bytes
+        Path snapshotFile = snapshotFile(path, sheetName);
+        SheetSnapshot snapshot = SheetSnapshot.open(snapshotFile, sourceHash, lastModified);
+        if (snapshot != null) {
+            logger.info("Loaded " + snapshot.rowCount() + " row(s) of sheet '" + sheetName + "' from snapshot in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms: " + snapshotFile);
+            return snapshot; // No POI classes needed
+        }
 
-            dataList.add(rowMap); // Add the row's map to the final list
+        SheetData parsed = parseSheet(path, sheetName, lastModified);
+        try {
+            SheetSnapshot.write(snapshotFile, sourceHash, parsed); // Compiled on first run, reused by later JVMs
+        } catch (IOException e) {
+            logger.warn("Could not write test data snapshot " + snapshotFile + ": " + e.getMessage());
         }
+        return parsed;
+    }
 
-        logger.info("Successfully read " + dataList.size() + " row(s) of data from sheet: " + sheetName); // Log success
+    private static Path snapshotFile(Path workbook, String sheetName) {
+        String name = workbook.getFileName() + "-" + Integer.toHexString(workbook.toString().hashCode())
+            + "-" + sheetName.replaceAll("[^a-zA-Z0-9]", "_") + ".bin"; // One snapshot per workbook and sheet
+        return SNAPSHOT_DIR.resolve(name);
+    }
 
-        workbook.close(); // Close workbook
-        fis.close(); // Close file input stream
+    private static SheetData parseSheet(Path path, String sheetName, long lastModified) throws IOException {
+        logger.info("Reading data from Excel file: " + path + ", Sheet: " + sheetName); // Log read start
+
+        try (ExcelStreamReader reader = new ExcelStreamReader(path, sheetName)) { // Streams rows, closed even on failure
+            List<String[]> rows = new ArrayList<>();
+            while (reader.hasNext()) {
+                String[] values = reader.nextValues(); // One row's values in header order
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Row " + (rows.size() + 1) + " - " + Arrays.toString(values)); // Log each row for debugging
+                }
+                rows.add(values);
+            }
 
-        return dataList; // Return complete list of row data
+            logger.info("Successfully read " + rows.size() + " row(s) of data from sheet: " + sheetName); // Log success
+            return new ParsedSheet(reader.headers(), rows.toArray(new String[0][]), lastModified);
+        }
     }
 
 }
@@ -0,0 +1,293 @@
+package utils;
+
+// Importing Apache POI classes to stream Excel files without loading the whole workbook
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+// Importing Log4j for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the rows of one sheet of an .xlsx file using POI's event API and a StAX pull parser.
+ * Only the current row is held in memory, so large data sheets can be read in constant memory.
+ * Rows use the first row as headers and are formatted with {@link DataFormatter}, like {@link ExcelReader#getData}.
+ */
+public class ExcelStreamReader implements Iterator<Map<String, String>>, Closeable {
+
+    private static final Logger logger = LogManager.getLogger(ExcelStreamReader.class); // Logger instance for this class
+
+    private final OPCPackage pkg; // Open workbook package, closed by close()
+    private final ReadOnlySharedStringsTable sharedStrings; // Strings referenced by index from cells
+    private final StylesTable styles; // Number formats referenced by index from cells
+    private final DataFormatter formatter = new DataFormatter(); // Formatter to get cell values as strings
+    private InputStream sheetStream; // XML of the requested sheet, null if the sheet does not exist
+    private XMLStreamReader xml; // Pull parser over the sheet XML
+    private SheetHeaders headers = SheetHeaders.EMPTY; // Column headers from the first row
+    private String[] nextRow; // Row read ahead by hasNext()
+    private int rowsRead; // Data rows returned so far
+
+    /**
+     * Opens the workbook and positions the reader after the header row of the given sheet.
+     * @param filePath The path to the Excel file.
+     * @param sheetName The name of the sheet to read from.
+     * @throws IOException If the file cannot be found or read.
+     */
+    public ExcelStreamReader(Path filePath, String sheetName) throws IOException {
+        logger.info("Streaming data from Excel file: " + filePath + ", Sheet: " + sheetName); // Log read start
+        try {
+            pkg = OPCPackage.open(filePath.toFile(), PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Not a valid .xlsx file: " + filePath, e);
+        }
+
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream stream = sheets.next();
+                if (sheetName.equals(sheets.getSheetName())) {
+                    sheetStream = stream; // Keep only the requested sheet open
+                    break;
+                }
+                stream.close();
+            }
+
+            if (sheetStream == null) {
+                logger.error("Sheet '" + sheetName + "' not found in the workbook."); // Log missing sheet
+                return;
+            }
+
+            xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheetStream);
+            readHeaders(sheetName);
+        } catch (IOException | OpenXML4JException | SAXException | XMLStreamException | RuntimeException e) {
+            close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Failed to open sheet '" + sheetName + "'", e);
+        }
+    }
+
+    /**
+     * @return The column headers of the sheet, in column order.
+     */
+    public String[] getHeaders() {
+        return headers.names().clone();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow == null && xml != null) {
+            try {
+                nextRow = readNextRow(headers.size());
+            } catch (XMLStreamException e) {
+                throw new UncheckedIOException(new IOException("Failed to parse sheet XML", e));
+            }
+        }
+        return nextRow != null;
+    }
+
+    /**
+     * @return The next data row as a map keyed by column header.
+     */
+    @Override
+    public Map<String, String> next() {
+        return new DataRow(headers, nextValues());
+    }
+
+    /**
+     * @return The next data row as an array of cell values in header order.
+     */
+    String[] nextValues() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String[] row = nextRow;
+        nextRow = null;
+        rowsRead++;
+        return row;
+    }
+
+    SheetHeaders headers() {
+        return headers;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (xml != null) {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            logger.warn("Error while closing sheet parser: " + e.getMessage());
+        } finally {
+            xml = null;
+            if (sheetStream != null) {
+                sheetStream.close();
+            }
+            pkg.revert(); // Close a read-only package without saving
+            logger.debug("Closed Excel stream after " + rowsRead + " data row(s).");
+        }
+    }
+
+    private void readHeaders(String sheetName) throws XMLStreamException {
+        if (!advanceToRow()) {
+            logger.error("Header row is missing in the sheet: " + sheetName); // Log missing headers
+            xml = null;
+            return;
+        }
+        String rowRef = xml.getAttributeValue(null, "r");
+        if (rowRef != null && !"1".equals(rowRef)) {
+            logger.error("Header row is missing in the sheet: " + sheetName); // First row is not row 1
+            xml = null;
+            return;
+        }
+        headers = new SheetHeaders(readRowValues(-1)); // First row is header row
+    }
+
+    private String[] readNextRow(int width) throws XMLStreamException {
+        if (!advanceToRow()) {
+            return null; // End of sheet data
+        }
+        return readRowValues(width);
+    }
+
+    private boolean advanceToRow() throws XMLStreamException {
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the cells of the current row element.
+     * @param width Number of columns to keep, or -1 to keep every column (used for the header row).
+     */
+    private String[] readRowValues(int width) throws XMLStreamException {
+        String[] values = new String[Math.max(width, 0)];
+        int nextColumn = 0;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                String ref = xml.getAttributeValue(null, "r");
+                String type = xml.getAttributeValue(null, "t");
+                String style = xml.getAttributeValue(null, "s");
+                int column = ref == null ? nextColumn : columnIndex(ref);
+                String value = readCell(type, style);
+                nextColumn = column + 1;
+
+                if (width < 0 && column >= values.length) {
+                    values = Arrays.copyOf(values, column + 1); // Header row grows to its last cell
+                }
+                if (column < values.length) {
+                    values[column] = value;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                break;
+            }
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                values[i] = ""; // Missing cells read as empty, like DataFormatter does for null cells
+            }
+        }
+        return values;
+    }
+
+    private String readCell(String type, String style) throws XMLStreamException {
+        StringBuilder raw = new StringBuilder();
+        boolean inValue = false;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xml.getLocalName();
+                inValue = "v".equals(name) || "t".equals(name); // Cached value or inline string text
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                if (inValue) {
+                    raw.append(xml.getText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if ("c".equals(xml.getLocalName())) {
+                    break;
+                }
+                inValue = false;
+            }
+        }
+
+        return formatValue(type, style, raw.toString());
+    }
+
+    private String formatValue(String type, String style, String raw) {
+        if (raw.isEmpty()) {
+            return "";
+        }
+        if ("s".equals(type)) {
+            return sharedStrings.getItemAt(Integer.parseInt(raw)).getString(); // Shared string index
+        }
+        if ("inlineStr".equals(type) || "str".equals(type) || "e".equals(type)) {
+            return raw; // Inline text, formula string result or error code
+        }
+        if ("b".equals(type)) {
+            return "1".equals(raw) ? "TRUE" : "FALSE"; // Same text as DataFormatter for booleans
+        }
+
+        int formatIndex = 0;
+        String formatString = null;
+        if (style != null && styles != null) {
+            XSSFCellStyle cellStyle = styles.getStyleAt(Integer.parseInt(style));
+            if (cellStyle != null) {
+                formatIndex = cellStyle.getDataFormat();
+                formatString = cellStyle.getDataFormatString();
+            }
+        }
+        if (formatString == null) {
+            formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+        }
+        try {
+            return formatter.formatRawCellContents(Double.parseDouble(raw), formatIndex, formatString); // Numbers and dates
+        } catch (NumberFormatException e) {
+            return raw;
+        }
+    }
+
+    private static int columnIndex(String cellRef) {
+        int column = 0;
+        for (int i = 0; i < cellRef.length(); i++) {
+            char c = cellRef.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break; // Row digits start here
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+}
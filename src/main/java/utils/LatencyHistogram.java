@@ -0,0 +1,130 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Log-linear latency histogram in milliseconds. Samples are counted in microseconds: exactly below 64 microseconds,
+ * then in 32 equal sub-buckets per power of two, so a percentile is within about 3% of the true value at
+ * any latency. Buckets are allocated as samples arrive, which keeps it cheap enough to update on every
+ * WebDriver command and small enough to write per scenario. Thread-safe.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5; // 32 sub-buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2; // Values below this many microseconds get a bucket each
+
+    private long[] counts = new long[LINEAR_LIMIT]; // Grown on demand for slower samples
+    private long count; // Number of samples
+    private double totalMillis; // Sum of all samples
+    private double maxMillis; // Slowest sample
+
+    /**
+     * @param millis Latency of one call.
+     */
+    public synchronized void record(double millis) {
+        int bucket = bucketOf((long) Math.ceil(Math.max(0, millis) * 1000));
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, bucket + SUB_BUCKETS);
+        }
+        counts[bucket]++;
+        count++;
+        totalMillis += millis;
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    /**
+     * Adds another histogram's samples to this one.
+     */
+    public synchronized void add(LatencyHistogram other) {
+        synchronized (other) {
+            if (other.counts.length > counts.length) {
+                counts = Arrays.copyOf(counts, other.counts.length);
+            }
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            totalMillis += other.totalMillis;
+            maxMillis = Math.max(maxMillis, other.maxMillis);
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public synchronized double getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * @param percentile e.g. 95.
+     * @return The upper bound of the bucket holding that percentile, capped at the slowest sample.
+     */
+    public synchronized double percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundMillis(i), maxMillis);
+            }
+        }
+        return maxMillis;
+    }
+
+    /**
+     * @return Count, total, mean, p50, p95, p99, max and the non-empty buckets, ready for JSON output.
+     */
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", count);
+        map.put("totalMillis", round(totalMillis));
+        map.put("meanMillis", count == 0 ? 0 : round(totalMillis / count));
+        map.put("p50Millis", round(percentile(50)));
+        map.put("p95Millis", round(percentile(95)));
+        map.put("p99Millis", round(percentile(99)));
+        map.put("maxMillis", round(maxMillis));
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                buckets.put("<=" + upperBoundMillis(i), counts[i]);
+            }
+        }
+        map.put("buckets", buckets);
+        return map;
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros); // At least SUB_BUCKET_BITS + 1
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >>> shift) - SUB_BUCKETS; // 0 to SUB_BUCKETS - 1
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static double upperBoundMillis(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket / 1000.0;
+        }
+        int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return (((subBucket + 1) << shift) - 1) / 1000.0;
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 10) / 10.0;
+    }
+}
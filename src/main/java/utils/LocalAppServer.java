@@ -0,0 +1,151 @@
+package utils;
+
+// Importing the JDK's built-in HTTP server
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Importing Log4j for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves a local snapshot of the Event Management application on the loopback interface, so scenarios
+ * do not depend on the remote host. Files are read once and then served from memory by a small thread
+ * pool; an optional fixed latency per request makes slow-network runs reproducible.
+ * Enabled with "app.local=true"; see src/test/resources/app/README.md for capturing the snapshot.
+ */
+public final class LocalAppServer {
+
+    private static final Logger logger = LogManager.getLogger(LocalAppServer.class); // Logger instance for this class
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+        "html", "text/html; charset=utf-8", "htm", "text/html; charset=utf-8", "js", "application/javascript",
+        "css", "text/css", "json", "application/json", "png", "image/png", "jpg", "image/jpeg", "jpeg", "image/jpeg",
+        "svg", "image/svg+xml", "woff2", "font/woff2");
+    private static LocalAppServer instance; // Shared server, started on first use
+
+    private final Path root; // Snapshot directory
+    private final Duration latency; // Delay added to every response
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>(); // Request path -> content, filled on first request
+
+    private LocalAppServer(Path root, int port, int threads, Duration latency) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.latency = latency;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "local-app-" + counter.incrementAndGet());
+            thread.setDaemon(true); // Never keeps the JVM alive
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /**
+     * @return The running server configured from "app.local.dir", "app.local.port", "app.local.threads"
+     *         and "app.local.latency".
+     */
+    public static synchronized LocalAppServer getInstance() {
+        if (instance == null) {
+            ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+            Path root = Paths.get(config.getProperty("app.local.dir", "src/test/resources/app/EventManagement"));
+            if (!Files.isRegularFile(root.resolve("index.html"))) {
+                throw new IllegalStateException("No application snapshot at " + root.toAbsolutePath()
+                    + "; capture one as described in src/test/resources/app/README.md or set app.local=false.");
+            }
+            try {
+                instance = new LocalAppServer(root,
+                    config.getInt("app.local.port", 0),
+                    config.getInt("app.local.threads", 8),
+                    config.getDuration("app.local.latency", Duration.ZERO));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start the local application server", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::stop, "local-app-stop"));
+            logger.info("Serving " + instance.root + " at " + instance.getBaseUrl()
+                + (instance.latency.isZero() ? "" : " with " + instance.latency.toMillis() + " ms latency"));
+        }
+        return instance;
+    }
+
+    /**
+     * @return e.g. "http://127.0.0.1:54321/".
+     */
+    public String getBaseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + "/";
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis()); // Simulated network delay
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            String key = path.endsWith("/") ? path + "index.html" : path;
+            byte[] body = files.get(key);
+            if (body == null) {
+                Path file = resolve(key);
+                if (file == null || !Files.isRegularFile(file)) {
+                    exchange.sendResponseHeaders(404, -1); // Missing, or outside the snapshot directory
+                    return;
+                }
+                body = Files.readAllBytes(file);
+                files.put(key, body);
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", contentType(key));
+            exchange.getResponseHeaders().set("Cache-Control", "no-store"); // Every scenario sees the same requests
+            boolean head = "HEAD".equals(method) || body.length == 0;
+            exchange.sendResponseHeaders(200, head ? -1 : body.length);
+            if (!head) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Server is stopping
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Path resolve(String path) {
+        Path file = root.resolve(path.replaceFirst("^/+", "")).normalize();
+        return file.startsWith(root) ? file : null;
+    }
+
+    private static String contentType(String path) {
+        String extension = path.substring(path.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+}
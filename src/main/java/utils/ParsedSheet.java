@@ -0,0 +1,38 @@
+package utils;
+
+/**
+ * Sheet contents parsed into memory.
+ * Headers are stored once and each data row is a compact array of cell values in header order.
+ */
+final class ParsedSheet implements SheetData {
+
+    private final SheetHeaders headers; // Column headers from the first row
+    private final String[][] rows; // Data rows, excluding the header row
+    private final long lastModified; // File modification time the data was parsed from
+
+    ParsedSheet(SheetHeaders headers, String[][] rows, long lastModified) {
+        this.headers = headers;
+        this.rows = rows;
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public SheetHeaders headers() {
+        return headers;
+    }
+
+    @Override
+    public int rowCount() {
+        return rows.length;
+    }
+
+    @Override
+    public String value(int row, int column) {
+        return rows[row][column];
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+}
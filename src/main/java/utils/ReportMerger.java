@@ -0,0 +1,163 @@
+package utils;
+
+// Importing Gson to read and write Cucumber JSON reports
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines the outputs of a sharded run (one directory per shard, as written by runners.TestRunner
+ * under target/shards) into one Cucumber JSON report and one rerun file.
+ * Features split across shards are joined again and their scenarios put back in file order.
+ * Usage: {@code java utils.ReportMerger [shardsDir] [jsonOutput] [rerunOutput]}, defaulting to
+ * target/shards, target/cucumber-reports/CucumberTestReport.json and target/failed-scenario.txt.
+ */
+public final class ReportMerger {
+
+    private static final String JSON_REPORT = "CucumberTestReport.json"; // Per-shard Cucumber JSON
+    private static final String RERUN_FILE = "failed-scenario.txt"; // Per-shard rerun file
+
+    private ReportMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path shards = Paths.get(args.length > 0 ? args[0] : "target/shards");
+        Path json = Paths.get(args.length > 1 ? args[1] : "target/cucumber-reports/" + JSON_REPORT);
+        Path rerun = Paths.get(args.length > 2 ? args[2] : "target/failed-scenario.txt");
+
+        List<Path> shardDirs;
+        try (Stream<Path> list = Files.list(shards)) {
+            shardDirs = list.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+        }
+        if (shardDirs.isEmpty()) {
+            throw new IllegalStateException("No shard directories in " + shards.toAbsolutePath());
+        }
+
+        JsonArray merged = mergeJson(shardDirs);
+        write(json, new Gson().toJson(merged));
+        String failed = mergeRerun(shardDirs);
+        write(rerun, failed);
+
+        long scenarios = 0;
+        for (JsonElement feature : merged) {
+            for (JsonElement element : elements(feature.getAsJsonObject())) {
+                if (!"background".equals(element.getAsJsonObject().get("type").getAsString())) {
+                    scenarios++;
+                }
+            }
+        }
+        System.out.println("Merged " + shardDirs.size() + " shard(s): " + merged.size() + " feature(s), " + scenarios
+            + " scenario(s) -> " + json.toAbsolutePath() + "; rerun -> " + rerun.toAbsolutePath()
+            + (failed.isEmpty() ? " (no failures)" : ""));
+    }
+
+    /**
+     * Joins features by URI. Each scenario keeps the backgrounds that precede it in its shard's report.
+     */
+    static JsonArray mergeJson(List<Path> shardDirs) throws IOException {
+        Map<String, JsonObject> features = new LinkedHashMap<>(); // URI -> feature without elements
+        Map<String, List<List<JsonElement>>> scenarios = new LinkedHashMap<>(); // URI -> [backgrounds..., scenario]
+
+        for (Path dir : shardDirs) {
+            Path report = dir.resolve(JSON_REPORT);
+            if (!Files.isRegularFile(report)) {
+                System.err.println("Skipping " + dir + ": no " + JSON_REPORT);
+                continue;
+            }
+            JsonArray shard;
+            try (Reader reader = Files.newBufferedReader(report, StandardCharsets.UTF_8)) {
+                shard = JsonParser.parseReader(reader).getAsJsonArray();
+            }
+            for (JsonElement featureElement : shard) {
+                JsonObject feature = featureElement.getAsJsonObject();
+                String uri = feature.get("uri").getAsString();
+                features.computeIfAbsent(uri, k -> {
+                    JsonObject copy = feature.deepCopy();
+                    copy.remove("elements");
+                    return copy;
+                });
+                List<JsonElement> group = new ArrayList<>();
+                for (JsonElement element : elements(feature)) {
+                    group.add(element);
+                    if (!"background".equals(element.getAsJsonObject().get("type").getAsString())) {
+                        scenarios.computeIfAbsent(uri, k -> new ArrayList<>()).add(group);
+                        group = new ArrayList<>();
+                    }
+                }
+            }
+        }
+
+        JsonArray merged = new JsonArray();
+        features.forEach((uri, feature) -> {
+            List<List<JsonElement>> groups = scenarios.getOrDefault(uri, new ArrayList<>());
+            groups.sort(Comparator.comparingInt(group -> group.get(group.size() - 1).getAsJsonObject().get("line").getAsInt()));
+            JsonArray elements = new JsonArray();
+            groups.forEach(group -> group.forEach(elements::add));
+            feature.add("elements", elements);
+            merged.add(feature);
+        });
+        return merged;
+    }
+
+    /**
+     * Rerun files list "feature:line:line..." per line; lines of the same feature are combined.
+     */
+    static String mergeRerun(List<Path> shardDirs) throws IOException {
+        Map<String, TreeSet<Integer>> failed = new TreeMap<>(); // Feature -> failed lines
+        for (Path dir : shardDirs) {
+            Path file = dir.resolve(RERUN_FILE);
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            for (String entry : new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim().split("\\s+")) {
+                int colon = entry.indexOf(':', entry.lastIndexOf(".feature"));
+                if (entry.isEmpty() || colon < 0) {
+                    continue;
+                }
+                TreeSet<Integer> lines = failed.computeIfAbsent(entry.substring(0, colon), k -> new TreeSet<>());
+                for (String line : entry.substring(colon + 1).split(":")) {
+                    lines.add(Integer.parseInt(line));
+                }
+            }
+        }
+        StringBuilder rerun = new StringBuilder();
+        failed.forEach((feature, lines) -> {
+            rerun.append(feature);
+            lines.forEach(line -> rerun.append(':').append(line));
+            rerun.append('\n');
+        });
+        return rerun.toString();
+    }
+
+    private static JsonArray elements(JsonObject feature) {
+        JsonElement elements = feature.get("elements");
+        return elements != null && elements.isJsonArray() ? elements.getAsJsonArray() : new JsonArray();
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package utils;
+
+/**
+ * Tells the hooks whether the scenario running on this thread is a rerun of a scenario that failed in
+ * the main pass, so they can mark the attempt in the Cucumber reports.
+ */
+public final class RerunAttempt {
+
+    private static final ThreadLocal<int[]> current = new ThreadLocal<>(); // {attempt, attempts} while rerunning
+
+    private RerunAttempt() {
+    }
+
+    /**
+     * Marks the following scenario on this thread as rerun {@code attempt} of {@code attempts}.
+     */
+    public static void begin(int attempt, int attempts) {
+        current.set(new int[] {attempt, attempts});
+    }
+
+    public static void end() {
+        current.remove();
+    }
+
+    /**
+     * @return e.g. "rerun 1 of 2", or null when this is not a rerun.
+     */
+    public static String describe() {
+        int[] attempt = current.get();
+        return attempt == null ? null : "rerun " + attempt[0] + " of " + attempt[1];
+    }
+}
@@ -0,0 +1,212 @@
+package utils;
+
+// Importing Log4j for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Content-addressed screenshot storage.
+ * Each distinct image is stored once under objects/ named by its SHA-256; index.csv records one line per
+ * scenario screenshot (time, status, object, name). A retention policy by age, object count and total bytes
+ * keeps the folder bounded, and screenshots of passed scenarios can be downscaled before they are stored.
+ * Writes and retention hold a lock on store.lock, so parallel JVMs (e.g. shards) can share one folder.
+ */
+public class ScreenshotStore {
+
+    private static final Logger logger = LogManager.getLogger(ScreenshotStore.class); // Logger instance for this class
+    private static final String INDEX_FILE = "index.csv"; // One line per stored screenshot
+    private static final String LOCK_FILE = "store.lock"; // Locked while the index or objects change
+    private static final Object JVM_LOCK = new Object(); // File locks are per JVM, so threads queue here first
+
+    private final Path folder; // Store root
+    private final Path objects; // Unique images, named by hash
+    private final Duration maxAge; // Objects not referenced for longer are deleted, null for no limit
+    private final int maxCount; // Maximum number of unique images, 0 for no limit
+    private final long maxBytes; // Maximum total size of unique images, 0 for no limit
+    private final double passedScale; // Scale factor for screenshots of passed scenarios, 1 keeps the original
+
+    public ScreenshotStore(Path folder, Duration maxAge, int maxCount, long maxBytes, double passedScale) {
+        this.folder = folder;
+        this.objects = folder.resolve("objects");
+        this.maxAge = maxAge;
+        this.maxCount = maxCount;
+        this.maxBytes = maxBytes;
+        this.passedScale = passedScale;
+    }
+
+    /**
+     * Stores a screenshot, writing the image only if identical bytes are not stored already.
+     * @param name Scenario screenshot name recorded in the index.
+     * @param failed Whether the scenario failed; only passed screenshots are downscaled.
+     * @param png Image bytes as captured from the browser.
+     * @return The stored image file.
+     */
+    public Path store(String name, boolean failed, byte[] png) throws IOException {
+        return locked(() -> write(name, failed, png));
+    }
+
+    /**
+     * Applies the retention policy: deletes images (and their index lines) that are too old, or the least
+     * recently used images beyond the count and size limits, plus images no index line refers to.
+     */
+    public void enforceRetention() throws IOException {
+        locked(() -> {
+            retain();
+            return null;
+        });
+    }
+
+    private <T> T locked(IoAction<T> action) throws IOException {
+        synchronized (JVM_LOCK) {
+            Files.createDirectories(folder);
+            try (FileChannel channel = FileChannel.open(folder.resolve(LOCK_FILE),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) { // Blocks while another JVM holds it
+                return action.run();
+            }
+        }
+    }
+
+    private Path write(String name, boolean failed, byte[] png) throws IOException {
+        boolean scale = !failed && passedScale > 0 && passedScale < 1;
+        String hash = sha256(png) + (scale ? "_scaled" : ""); // Full-size and downscaled copies are different objects
+        Path object = objects.resolve(hash + ".png");
+
+        Files.createDirectories(objects);
+        if (Files.exists(object)) {
+            logger.info("Screenshot " + name + " is identical to stored image " + object.getFileName());
+        } else {
+            Files.write(object, scale ? downscale(png) : png);
+            logger.info("Screenshot saved: " + object.toAbsolutePath());
+        }
+
+        String line = System.currentTimeMillis() + "," + (failed ? "FAILED" : "PASSED") + "," + hash + "," + name + "\n";
+        Files.write(folder.resolve(INDEX_FILE), line.getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return object;
+    }
+
+    private void retain() throws IOException {
+        Path indexFile = folder.resolve(INDEX_FILE);
+        if (!Files.isDirectory(objects)) {
+            return;
+        }
+
+        List<String> lines = Files.exists(indexFile)
+            ? Files.readAllLines(indexFile, StandardCharsets.UTF_8) : new ArrayList<>();
+        Map<String, Long> lastUsed = new HashMap<>(); // Object -> most recent screenshot time
+        for (String line : lines) {
+            String[] fields = line.split(",", 4);
+            if (fields.length == 4) {
+                lastUsed.merge(fields[2], Long.parseLong(fields[0]), Math::max);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        List<String> newestFirst = new ArrayList<>(lastUsed.keySet());
+        newestFirst.sort(Comparator.comparing(lastUsed::get, Comparator.reverseOrder()));
+
+        Set<String> keep = new HashSet<>();
+        long keptBytes = 0;
+        for (String hash : newestFirst) {
+            Path object = objects.resolve(hash + ".png");
+            if (!Files.exists(object)) {
+                continue;
+            }
+            long size = Files.size(object);
+            boolean expired = maxAge != null && now - lastUsed.get(hash) > maxAge.toMillis();
+            boolean overCount = maxCount > 0 && keep.size() >= maxCount;
+            boolean overBytes = maxBytes > 0 && keptBytes + size > maxBytes;
+            if (expired || overCount || overBytes) {
+                continue;
+            }
+            keep.add(hash);
+            keptBytes += size;
+        }
+
+        int deleted = 0;
+        try (DirectoryStream<Path> stored = Files.newDirectoryStream(objects, "*.png")) {
+            for (Path object : stored) {
+                String hash = object.getFileName().toString().replace(".png", "");
+                if (!keep.contains(hash)) {
+                    Files.deleteIfExists(object); // Expired, over limits or not referenced
+                    deleted++;
+                }
+            }
+        }
+
+        List<String> kept = new ArrayList<>();
+        for (String line : lines) {
+            String[] fields = line.split(",", 4);
+            if (fields.length == 4 && keep.contains(fields[2])) {
+                kept.add(line);
+            }
+        }
+        Files.write(indexFile, kept, StandardCharsets.UTF_8);
+        logger.info("Screenshot retention kept " + keep.size() + " image(s) (" + keptBytes + " bytes), deleted " + deleted + ".");
+    }
+
+    private byte[] downscale(byte[] png) {
+        try {
+            BufferedImage original = ImageIO.read(new ByteArrayInputStream(png));
+            if (original == null) {
+                return png; // Not decodable, keep as captured
+            }
+            int width = Math.max(1, (int) Math.round(original.getWidth() * passedScale));
+            int height = Math.max(1, (int) Math.round(original.getHeight() * passedScale));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(original, 0, 0, width, height, null);
+            graphics.dispose();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(scaled, "png", out); // Re-encode as PNG
+            return out.toByteArray();
+        } catch (IOException e) {
+            logger.warn("Could not downscale screenshot, storing original: " + e.getMessage());
+            return png;
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private interface IoAction<T> {
+        T run() throws IOException;
+    }
+}
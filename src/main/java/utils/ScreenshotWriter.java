@@ -0,0 +1,117 @@
+package utils;
+
+// Importing Log4j for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes scenario screenshots to disk on a background thread, so the scenario thread only
+ * pays for the capture itself. The queue is bounded; when it is full the caller writes the file
+ * itself instead of buffering more images. Pending writes are flushed at JVM shutdown.
+ * Files go through a {@link ScreenshotStore}, which deduplicates identical images and applies retention limits.
+ */
+public class ScreenshotWriter {
+
+    /**
+     * When screenshots are taken, from the "screenshot.policy" config key.
+     */
+    public enum Policy { ALWAYS, ON_FAILURE, NEVER }
+
+    private static final Logger logger = LogManager.getLogger(ScreenshotWriter.class); // Logger instance for this class
+    private static ScreenshotWriter instance; // Shared writer, created on first use
+
+    private final Policy policy; // Which scenarios get a screenshot
+    private final ScreenshotStore store; // Deduplicating storage with retention limits
+    private final ThreadPoolExecutor executor; // Single background writer with a bounded queue
+
+    private ScreenshotWriter(Policy policy, ScreenshotStore store, int queueSize) {
+        this.policy = policy;
+        this.store = store;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+                Thread thread = new Thread(runnable, "screenshot-writer");
+                thread.setDaemon(true); // Shutdown hook flushes, the thread itself never blocks exit
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy()); // Back-pressure instead of unbounded memory
+    }
+
+    /**
+     * @return The shared writer configured from "screenshot.policy", "screenshot.dir" and "screenshot.queue".
+     */
+    public static synchronized ScreenshotWriter getInstance() {
+        if (instance == null) {
+            ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+            Policy policy = Policy.valueOf(config.getProperty("screenshot.policy", "always")
+                .trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            Path folder = Paths.get(config.getProperty("screenshot.dir", "target/screenshots"));
+            ScreenshotStore store = new ScreenshotStore(folder,
+                Duration.ofDays(config.getInt("screenshot.retention.maxAgeDays", 7)),
+                config.getInt("screenshot.retention.maxCount", 200),
+                config.getLong("screenshot.retention.maxBytes", 100L * 1024 * 1024),
+                config.getDouble("screenshot.passed.scale", 1));
+            instance = new ScreenshotWriter(policy, store, config.getInt("screenshot.queue", 32));
+            instance.executor.execute(instance::enforceRetention); // Trim what earlier runs left behind
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::flush, "screenshot-flush")); // Finish pending writes
+            logger.info("Screenshot policy " + policy + ", writing to " + folder.toAbsolutePath());
+        }
+        return instance;
+    }
+
+    /**
+     * @param failed Whether the scenario failed.
+     * @return True if the policy asks for a screenshot of this scenario.
+     */
+    public boolean shouldCapture(boolean failed) {
+        return policy == Policy.ALWAYS || (policy == Policy.ON_FAILURE && failed);
+    }
+
+    /**
+     * Queues a PNG for writing and returns immediately (unless the queue is full).
+     * @param name Screenshot name recorded in the store index.
+     * @param failed Whether the scenario failed.
+     * @param png Image bytes as captured from the browser.
+     */
+    public void save(String name, boolean failed, byte[] png) {
+        executor.execute(() -> write(name, failed, png));
+    }
+
+    /**
+     * Waits for queued screenshots to be written, applies retention and stops the writer thread.
+     */
+    public void flush() {
+        executor.execute(this::enforceRetention);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Timed out flushing screenshots, " + executor.getQueue().size() + " still queued.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+        }
+    }
+
+    private void write(String name, boolean failed, byte[] png) {
+        try {
+            store.store(name, failed, png);
+        } catch (IOException e) {
+            logger.error("Could not save screenshot " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void enforceRetention() {
+        try {
+            store.enforceRetention();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not apply screenshot retention: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package utils;
+
+/**
+ * Read-only contents of one Excel sheet, either parsed into memory ({@link ParsedSheet})
+ * or decoded on demand from a compiled binary snapshot ({@link SheetSnapshot}).
+ */
+interface SheetData {
+
+    SheetHeaders headers(); // Column headers from the first row
+
+    int rowCount(); // Number of data rows, excluding the header row
+
+    String value(int row, int column); // Cell value of a 0-based data row and column
+
+    long lastModified(); // File modification time the data was read from
+}
@@ -0,0 +1,53 @@
+package utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column headers of an Excel sheet with a lookup from header name to column position.
+ * Shared by every row read from the sheet.
+ */
+final class SheetHeaders {
+
+    static final SheetHeaders EMPTY = new SheetHeaders(new String[0]); // Sheet without a header row
+
+    private final String[] names; // Column headers from the first row
+    private final Map<String, Integer> index; // Header -> column position
+
+    SheetHeaders(String[] names) {
+        this.names = names;
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            positions.put(names[i], i); // Later duplicate headers win, as they did with the row HashMap
+        }
+        this.index = Collections.unmodifiableMap(positions);
+    }
+
+    String[] names() {
+        return names;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * @return Number of distinct header names, i.e. the keys of a row.
+     */
+    int keyCount() {
+        return index.size();
+    }
+
+    /**
+     * @return Whether the column is the one a row's key maps to; false for an earlier column with a duplicate name.
+     */
+    boolean isKey(int position) {
+        return indexOf(names[position]) == position;
+    }
+
+    int indexOf(Object header) {
+        Integer position = index.get(header);
+        return position == null ? -1 : position;
+    }
+}
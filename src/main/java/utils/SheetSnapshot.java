@@ -0,0 +1,224 @@
+package utils;
+
+// Importing Log4j for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of one Excel sheet, memory-mapped and decoded on demand.
+ * Lets forked test JVMs read test data without loading POI at all.
+ *
+ * <p>Layout (big-endian): a fixed header (magic, version, SHA-256 of the source workbook,
+ * column count, row count, dictionary size, string byte count), then the string dictionary offsets,
+ * the header table (one dictionary id per column), the cell table stored column by column
+ * (one dictionary id per cell, so a row is located by its index alone) and finally the UTF-8 string bytes.
+ * Each distinct cell value is stored once in the dictionary.</p>
+ */
+final class SheetSnapshot implements SheetData {
+
+    private static final Logger logger = LogManager.getLogger(SheetSnapshot.class); // Logger instance for this class
+    private static final int MAGIC = 0x454D5444; // "EMTD"
+    private static final int VERSION = 1; // Bump when the layout changes
+    private static final int HASH_LENGTH = 32; // SHA-256
+    private static final int HEADER_LENGTH = 4 + 4 + HASH_LENGTH + 4 * 4; // Fixed header size in bytes
+
+    private final ByteBuffer buffer; // Read-only mapping of the snapshot file
+    private final int columns; // Column count
+    private final int rows; // Data row count
+    private final int offsetsStart; // Position of the dictionary offsets
+    private final int cellsStart; // Position of the cell table
+    private final int stringsStart; // Position of the string bytes
+    private final String[] dictionary; // Decoded strings, filled lazily and shared by all rows
+    private final SheetHeaders headers; // Column headers decoded from the header table
+    private final long lastModified; // File modification time of the source workbook
+
+    private SheetSnapshot(ByteBuffer buffer, long lastModified) {
+        this.buffer = buffer;
+        this.lastModified = lastModified;
+        this.columns = buffer.getInt(4 + 4 + HASH_LENGTH);
+        this.rows = buffer.getInt(4 + 4 + HASH_LENGTH + 4);
+        int dictionarySize = buffer.getInt(4 + 4 + HASH_LENGTH + 8);
+        this.offsetsStart = HEADER_LENGTH;
+        int headerTableStart = offsetsStart + 4 * (dictionarySize + 1);
+        this.cellsStart = headerTableStart + 4 * columns;
+        this.stringsStart = cellsStart + 4 * columns * rows;
+        this.dictionary = new String[dictionarySize];
+
+        String[] names = new String[columns];
+        for (int i = 0; i < columns; i++) {
+            names[i] = string(buffer.getInt(headerTableStart + 4 * i));
+        }
+        this.headers = new SheetHeaders(names);
+    }
+
+    /**
+     * Maps a snapshot file if it exists and was compiled from a workbook with the given hash.
+     * @return The snapshot, or null if it is missing, stale or unreadable.
+     */
+    static SheetSnapshot open(Path file, byte[] sourceHash, long lastModified) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // Mapping outlives the channel
+            if (buffer.capacity() < HEADER_LENGTH || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                logger.warn("Ignoring unrecognised test data snapshot: " + file);
+                return null;
+            }
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.duplicate().position(8).get(hash);
+            if (!Arrays.equals(hash, sourceHash)) {
+                logger.info("Test data snapshot is stale, source workbook changed: " + file);
+                return null;
+            }
+            SheetSnapshot snapshot = new SheetSnapshot(buffer, lastModified);
+            if (snapshot.stringsStart + buffer.getInt(4 + 4 + HASH_LENGTH + 12) != buffer.capacity()) {
+                logger.warn("Ignoring truncated test data snapshot: " + file);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not map test data snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Compiles sheet contents into a snapshot file. The file is written to a temporary name and
+     * moved into place, so concurrent JVMs never see a partial snapshot.
+     */
+    static void write(Path file, byte[] sourceHash, SheetData sheet) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int columns = sheet.headers().size();
+        int rows = sheet.rowCount();
+
+        int[] headerIds = new int[columns];
+        for (int c = 0; c < columns; c++) {
+            headerIds[c] = intern(sheet.headers().names()[c], ids, strings);
+        }
+        int[] cellIds = new int[columns * rows];
+        for (int c = 0; c < columns; c++) {
+            for (int r = 0; r < rows; r++) {
+                cellIds[c * rows + r] = intern(sheet.value(r, c), ids, strings); // Column by column
+            }
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            int stringBytes = 0;
+            for (byte[] bytes : strings) {
+                stringBytes += bytes.length;
+            }
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(sourceHash);
+            out.writeInt(columns);
+            out.writeInt(rows);
+            out.writeInt(strings.size());
+            out.writeInt(stringBytes);
+
+            int offset = 0;
+            for (byte[] bytes : strings) {
+                out.writeInt(offset); // Start of each dictionary string
+                offset += bytes.length;
+            }
+            out.writeInt(offset); // End of the last string
+            for (int id : headerIds) {
+                out.writeInt(id);
+            }
+            for (int id : cellIds) {
+                out.writeInt(id);
+            }
+            for (byte[] bytes : strings) {
+                out.write(bytes);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Compiled test data snapshot " + file + " (" + rows + " row(s), " + strings.size() + " distinct value(s)).");
+    }
+
+    /**
+     * @return The SHA-256 of a file's contents, used to invalidate snapshots when the workbook changes.
+     */
+    static byte[] hash(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public SheetHeaders headers() {
+        return headers;
+    }
+
+    @Override
+    public int rowCount() {
+        return rows;
+    }
+
+    @Override
+    public String value(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Cell " + row + "," + column + " is outside the snapshot");
+        }
+        return string(buffer.getInt(cellsStart + 4 * (column * rows + row)));
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    private String string(int id) {
+        String value = dictionary[id];
+        if (value == null) {
+            int start = buffer.getInt(offsetsStart + 4 * id);
+            int end = buffer.getInt(offsetsStart + 4 * (id + 1));
+            byte[] bytes = new byte[end - start];
+            buffer.duplicate().position(stringsStart + start).get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            dictionary[id] = value; // Benign race: every thread decodes the same immutable String
+        }
+        return value;
+    }
+
+    private static int intern(String value, Map<String, Integer> ids, List<byte[]> strings) {
+        String key = value == null ? "" : value;
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = strings.size();
+            ids.put(key, id);
+            strings.add(key.getBytes(StandardCharsets.UTF_8));
+        }
+        return id;
+    }
+}
@@ -0,0 +1,202 @@
+package utils;
+
+// Importing Gson to persist the wait history
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+// Importing Log4j for logging
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records how long each wait (per locator and condition) actually takes, keeps the history across runs
+ * in a JSON file under target/, and derives timeouts from it: a high percentile of past waits plus headroom,
+ * never more than the configured timeout. A real regression then fails in seconds instead of hanging for
+ * the full configured timeout, and the summary shows which waits dominate scenario time.
+ * On save, this JVM's waits are merged into the file as it is then, under a file lock and with an atomic
+ * replace, so parallel JVMs add to one history and an interrupted write never truncates it.
+ */
+public class WaitProfiler {
+
+    private static final Logger logger = LogManager.getLogger(WaitProfiler.class); // Logger instance for this class
+    private static final int MAX_SAMPLES = 200; // Most recent successful waits kept per key
+    private static final Type PROFILE_TYPE = new TypeToken<Map<String, WaitStats>>() { }.getType();
+    private static WaitProfiler instance; // Shared profiler, created on first use
+
+    private final Path file; // Persisted history
+    private final boolean adaptive; // Derive timeouts from history when true, only record when false
+    private final double percentile; // Percentile of past waits the timeout is based on
+    private final double headroom; // Multiplier applied to the percentile
+    private final Duration minTimeout; // Lower bound for derived timeouts
+    private final int minSamples; // Samples needed before a key's timeout is derived
+    private final Map<String, WaitStats> profile; // Key -> history, as loaded plus this JVM's waits
+    private final Map<String, WaitStats> recorded = new LinkedHashMap<>(); // Key -> this JVM's waits only, merged on save
+
+    /** Persisted history of one wait key. */
+    static final class WaitStats {
+        List<Long> samples = new ArrayList<>(); // Durations of successful waits in ms, oldest first
+        long waits; // Total number of waits
+        long timeouts; // Waits that timed out
+        long totalMillis; // Time spent in all waits
+    }
+
+    private WaitProfiler(Path file, boolean adaptive, double percentile, double headroom, Duration minTimeout, int minSamples) {
+        this.file = file;
+        this.adaptive = adaptive;
+        this.percentile = percentile;
+        this.headroom = headroom;
+        this.minTimeout = minTimeout;
+        this.minSamples = minSamples;
+        this.profile = load(file);
+    }
+
+    /**
+     * @return The shared profiler configured from the "wait.*" config keys.
+     */
+    public static synchronized WaitProfiler getInstance() {
+        if (instance == null) {
+            ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+            instance = new WaitProfiler(
+                Paths.get(config.getProperty("wait.profile.file", "target/wait-profile.json")),
+                config.getBoolean("wait.adaptive", false),
+                config.getDouble("wait.adaptive.percentile", 99),
+                config.getDouble("wait.adaptive.headroom", 2),
+                config.getDuration("wait.adaptive.min", Duration.ofSeconds(2)),
+                config.getInt("wait.adaptive.minSamples", 10));
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::save, "wait-profile-save")); // Persist at exit
+        }
+        return instance;
+    }
+
+    /**
+     * @param key Locator and condition, e.g. "bookingconfirm:nonEmpty".
+     * @param configured The configured timeout, used as-is until enough history exists and as the upper bound.
+     * @return The timeout to use for this wait.
+     */
+    public synchronized Duration timeoutFor(String key, Duration configured) {
+        WaitStats stats = profile.get(key);
+        if (!adaptive || stats == null || stats.samples.size() < minSamples) {
+            return configured;
+        }
+        long derived = (long) (percentileOf(stats.samples) * headroom);
+        Duration timeout = Duration.ofMillis(Math.max(minTimeout.toMillis(), derived));
+        return timeout.compareTo(configured) < 0 ? timeout : configured;
+    }
+
+    /**
+     * Records the outcome of one wait.
+     * @param key Locator and condition.
+     * @param millis Time the wait took.
+     * @param timedOut Whether the wait gave up.
+     */
+    public synchronized void record(String key, long millis, boolean timedOut) {
+        if (timedOut) {
+            logger.warn("Wait '" + key + "' timed out after " + millis + " ms.");
+        }
+        add(profile.computeIfAbsent(key, k -> new WaitStats()), millis, timedOut);
+        add(recorded.computeIfAbsent(key, k -> new WaitStats()), millis, timedOut);
+    }
+
+    private static void add(WaitStats stats, long millis, boolean timedOut) {
+        stats.waits++;
+        stats.totalMillis += millis;
+        if (timedOut) {
+            stats.timeouts++;
+            return; // Timed-out waits are capped, keep them out of the percentile
+        }
+        stats.samples.add(millis);
+        if (stats.samples.size() > MAX_SAMPLES) {
+            stats.samples.remove(0);
+        }
+    }
+
+    /**
+     * Writes the history to disk and logs the waits that took the most time in total.
+     */
+    public synchronized void save() {
+        List<Map.Entry<String, WaitStats>> byTotal = new ArrayList<>(profile.entrySet());
+        byTotal.sort((a, b) -> Long.compare(b.getValue().totalMillis, a.getValue().totalMillis));
+        StringBuilder summary = new StringBuilder("Wait profile (total ms, waits, timeouts, p")
+            .append(percentile).append(" ms):");
+        for (Map.Entry<String, WaitStats> entry : byTotal.subList(0, Math.min(10, byTotal.size()))) {
+            WaitStats stats = entry.getValue();
+            summary.append("\n  ").append(entry.getKey()).append(": ").append(stats.totalMillis).append(", ")
+                .append(stats.waits).append(", ").append(stats.timeouts).append(", ")
+                .append(stats.samples.isEmpty() ? "-" : String.valueOf(percentileOf(stats.samples)));
+        }
+        logger.info(summary);
+
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            try (FileChannel channel = FileChannel.open(parent.resolve(file.getFileName() + ".lock"),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) { // Other JVMs saving the same profile wait here
+                Map<String, WaitStats> merged = load(file); // Includes what other JVMs saved since this one started
+                recorded.forEach((key, stats) -> merge(merged.computeIfAbsent(key, k -> new WaitStats()), stats));
+
+                Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    new GsonBuilder().setPrettyPrinting().create().toJson(merged, PROFILE_TYPE, writer);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                recorded.clear(); // Saved; a later save only adds newer waits
+                profile.clear();
+                profile.putAll(merged);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not save wait profile " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void merge(WaitStats into, WaitStats added) {
+        into.waits += added.waits;
+        into.timeouts += added.timeouts;
+        into.totalMillis += added.totalMillis;
+        into.samples.addAll(added.samples);
+        if (into.samples.size() > MAX_SAMPLES) {
+            into.samples.subList(0, into.samples.size() - MAX_SAMPLES).clear(); // Keep the most recent
+        }
+    }
+
+    private long percentileOf(List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static Map<String, WaitStats> load(Path file) {
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Map<String, WaitStats> loaded = new Gson().fromJson(reader, PROFILE_TYPE);
+                if (loaded != null) {
+                    return new LinkedHashMap<>(loaded);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Ignoring unreadable wait profile " + file + ": " + e.getMessage());
+            }
+        }
+        return new LinkedHashMap<>();
+    }
+}
@@ -7,17 +7,24 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.*;
 
+import utils.CachingElementLocatorFactory;
+import utils.CachingFieldDecorator;
 import utils.ConfigReader;
+import utils.DomWait;
+import utils.ElementUtils;
+import utils.LocalAppServer;
 
 import java.time.Duration;
 import java.util.*;
-import java.util.NoSuchElementException;
 
 public class BookingPage {
 
     private WebDriver driver;
-    private WebDriverWait wait;
+    private DomWait wait; // Event-driven waits instead of 500 ms polling
     private ConfigReader configReader;
+    private ElementUtils elementUtils;
+    private boolean fastFill; // Fill the whole form with one script call instead of typing
+    private CachingElementLocatorFactory locators; // Caches @FindBy lookups until the next navigation
     private static final Logger logger = LogManager.getLogger(BookingPage.class);
 
     // WebElements using @FindBy
@@ -39,18 +46,75 @@ public class BookingPage {
 
     public BookingPage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this); // Initialize WebElements
-        configReader = new ConfigReader(); // Load config reader
-        wait = new WebDriverWait(driver, Duration.ofSeconds(20)); // Initialize wait
+        locators = new CachingElementLocatorFactory(driver);
+        PageFactory.initElements(new CachingFieldDecorator(locators), this); // Initialize WebElements with cached lookups
+        configReader = ConfigReader.getInstance(); // Shared configuration snapshot
+        elementUtils = new ElementUtils(driver); // JavaScript helpers
+        fastFill = "fast".equalsIgnoreCase(configReader.getProperty("form.fill.mode", "typed")); // Fill mode from config
+        wait = new DomWait(driver, configReader.getDuration("timeout", Duration.ofSeconds(25))); // Upper bound, shortened by the wait profile
+    }
+
+    // Lookups saved by the locator cache on this page
+    public CachingElementLocatorFactory getLocatorCache() {
+        return locators;
     }
 
     public void navigateToHomePage() {
-        String url = configReader.getProperty("url"); // Get URL from config
+        String url = configReader.getBoolean("app.local", false)
+            ? LocalAppServer.getInstance().getBaseUrl() + configReader.getProperty("app.local.page", "index.html") // Local snapshot
+            : configReader.getProperty("url"); // Get URL from config
         logger.info("Opening URL: " + url);
         driver.get(url); // Navigate to home page
+        locators.invalidate(); // Elements from the previous page are gone
+        if (!"normal".equalsIgnoreCase(configReader.getProperty("pageLoadStrategy", "normal"))) {
+            // driver.get() returned before the page finished loading; wait only for what the steps use
+            String readyState = wait.pageReady(Arrays.asList("book-now", "contact_name"), Collections.singletonList("handleContact"));
+            logger.info("Booking and contact forms ready (document " + readyState + ").");
+        }
     }
 
     public void fillBookingForm(Map<String, String> data) {
+        if (fastFill) {
+            fastFillBookingForm(data); // Single round trip
+        } else {
+            typeBookingForm(data); // Real keystrokes
+        }
+    }
+
+    public Map<String, String> fastFillBookingForm(Map<String, String> data) {
+        logger.info("Fast-filling form with data: " + data);
+
+        // Excel column -> field ID, in the same order as typeBookingForm
+        String[][] fieldIds = {
+            {"FirstName", "firstName"}, {"LastName", "lastName"},
+            {"Email", "emaiId"}, {"Phone", "phoneNo"},
+            {"EventType", "eventType"}, {"Date", "eventDate"},
+            {"EventTime", "eventTime"}, {"GuestCount", "guestCount"},
+            {"Address", "address"}, {"City", "city"},
+            {"Pincode", "pincode"}, {"EventDetails", "eventDetail"}
+        };
+
+        Map<String, String> valuesById = new LinkedHashMap<>();
+        for (String[] pair : fieldIds) {
+            String value = data.get(pair[0]);
+            if (value != null && !value.isEmpty()) {
+                valuesById.put(pair[1], value); // Empty values are skipped, as typing "" does nothing
+            }
+        }
+        if ("Yes".equalsIgnoreCase(data.get("Catering"))) {
+            valuesById.put("vegFood", "Yes"); // Select catering option
+        }
+
+        Map<String, String> results = elementUtils.fillFields(valuesById);
+        List<String> unfilled = ElementUtils.unfilledFields(results);
+        if (!unfilled.isEmpty()) {
+            logger.warn("Fields not filled: " + unfilled);
+            throw new org.openqa.selenium.NoSuchElementException("Could not fill booking form fields: " + unfilled); // Same failure as the typed path
+        }
+        return results; // Per-field result
+    }
+
+    private void typeBookingForm(Map<String, String> data) {
         logger.info("Filling form with data: " + data);
 
         firstNameInput.sendKeys(data.get("FirstName"));
@@ -82,31 +146,17 @@ public class BookingPage {
         eventDetailsTextarea.sendKeys(data.get("EventDetails"));
     }
 
-    public void clickBookNow() {
-      logger.info("Clicking 'Book Now' button with upward scroll adjustment to expose form content.");
-      JavascriptExecutor js = (JavascriptExecutor) driver;
-
-      js.executeScript(
-          "const element = document.getElementById('book-now');" +
-          "const yOffset = 700;" +  
-          "const y = element.getBoundingClientRect().top + window.pageYOffset - yOffset;" +
-          "window.scrollTo({ top: y, behavior: 'smooth' });" +
-          "setTimeout(() => element.click(), 300);"
-      ); // Scroll to and click book now
-  }
+    public double clickBookNow() {
+        logger.info("Clicking 'Book Now' button with upward scroll adjustment to expose form content.");
+        double handlerMillis = elementUtils.clickAndSettle("book-now", 700); // Returns after the click handler has run
+        logger.info("'Book Now' handler completed in " + String.format("%.1f", handlerMillis) + " ms");
+        return handlerMillis; // Submit latency
+    }
 
     public String getAlertMessage() {
         logger.info("Trying to fetch confirmation message...");
 
-        wait.until(ExpectedConditions.visibilityOf(bookingConfirmMessage)); // Wait for visibility
-
-        wait.until(driver -> {
-            String text = bookingConfirmMessage.getText().trim();
-            logger.info("Waiting for message: '" + text + "'");
-            return !text.isEmpty(); // Wait for non-empty message
-        });
-
-        String finalText = bookingConfirmMessage.getText().trim();
+        String finalText = wait.nonEmptyText(bookingConfirmMessage, "bookingconfirm"); // Resolves as soon as a visible, non-empty message appears
         logger.info("Final confirmation message: '" + finalText + "'");
         return finalText; // Return confirmation message
     }
@@ -114,6 +164,22 @@ public class BookingPage {
     public List<String> getInvalidRequiredFields() {
         logger.info("Checking required fields for error messages");
 
+        List<String> invalidFields = new ArrayList<>();
+        for (Map.Entry<String, String> error : getValidationErrors().entrySet()) {
+            if (error.getValue() != null && !error.getValue().isEmpty()) {
+                invalidFields.add(error.getKey()); // Add invalid field name
+            }
+        }
+
+        logger.info("Invalid fields: " + invalidFields);
+        return invalidFields; // Return list of invalid fields
+    }
+
+    /**
+     * Reads every field's error message with one script call, without waiting.
+     * @return Field ID mapped to its error text ("" when valid), or to null when the error element is missing.
+     */
+    public Map<String, String> getValidationErrors() {
         // Simplified fixed map of field IDs to error element IDs
         String[][] fieldErrorIds = {
             {"firstName", "fnameErr"}, {"lastName", "lnameErr"},
@@ -124,20 +190,20 @@ public class BookingPage {
             {"pincode", "pincodeErr"}, {"eventDetail", "eventDetailErr"}
         };
 
-        List<String> invalidFields = new ArrayList<>();
+        List<String> errorIds = new ArrayList<>();
+        for (String[] pair : fieldErrorIds) {
+            errorIds.add(pair[1]);
+        }
+        Map<String, String> texts = elementUtils.readTexts(errorIds); // Single round trip, no implicit wait
 
+        Map<String, String> errors = new LinkedHashMap<>();
         for (String[] pair : fieldErrorIds) {
-            try {
-                WebElement error = driver.findElement(By.id(pair[1]));
-                if (!error.getText().trim().isEmpty()) {
-                    invalidFields.add(pair[0]); // Add invalid field name
-                }
-            } catch (NoSuchElementException e) {
+            String message = texts.get(pair[1]);
+            if (message == null) {
                 logger.warn("No error element found for: " + pair[0]);
             }
+            errors.put(pair[0], message);
         }
-
-        logger.info("Invalid fields: " + invalidFields);
-        return invalidFields; // Return list of invalid fields
+        return errors; // Field -> error message
     }
 }
@@ -5,20 +5,25 @@ import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.CachingElementLocatorFactory;
+import utils.CachingFieldDecorator;
 import utils.ConfigReader;
+import utils.DomWait;
+import utils.ElementUtils;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 
 public class ContactUsPage {
 
     private WebDriver driver;
-    private WebDriverWait wait;
+    private DomWait wait; // Event-driven waits instead of 500 ms polling
+    private ElementUtils elementUtils;
+    private boolean fastFill; // Fill the whole form with one script call instead of typing
+    private CachingElementLocatorFactory locators; // Caches @FindBy lookups for this page instance
     private static final Logger logger = LogManager.getLogger(ContactUsPage.class);
 
     // Page elements
@@ -39,35 +44,78 @@ public class ContactUsPage {
 
     public ContactUsPage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this); // Initialize web elements
-        ConfigReader configReader = new ConfigReader(); // Load configuration
-        long timeout = Long.parseLong(configReader.getProperty("timeout"));
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(timeout)); // Initialize wait
+        this.locators = new CachingElementLocatorFactory(driver);
+        PageFactory.initElements(new CachingFieldDecorator(locators), this); // Initialize web elements with cached lookups
+        ConfigReader configReader = ConfigReader.getInstance(); // Shared configuration snapshot
+        Duration timeout = configReader.getDuration("timeout", Duration.ofSeconds(25));
+        this.wait = new DomWait(driver, timeout); // Upper bound, shortened by the wait profile
+        this.elementUtils = new ElementUtils(driver); // JavaScript helpers
+        this.fastFill = "fast".equalsIgnoreCase(configReader.getProperty("form.fill.mode", "typed")); // Fill mode from config
+    }
+
+    // Lookups saved by the locator cache on this page
+    public CachingElementLocatorFactory getLocatorCache() {
+        return locators;
     }
 
     // Fill the form using Map data
     public void fillContactUsForm(Map<String, String> data) {
+        if (fastFill) {
+            fastFillContactUsForm(data); // Single round trip
+        } else {
+            typeContactUsForm(data); // Real keystrokes
+        }
+    }
+
+    // Fill every field with one script call and return the per-field result
+    public Map<String, String> fastFillContactUsForm(Map<String, String> data) {
+        logger.info("Fast-filling Contact Us form with data: " + data);
+
+        String[][] fieldIds = {
+            {"Name", "contact_name"},
+            {"Email", "contact_email"},
+            {"Subject", "contact_subject"},
+            {"Message", "contact_message"}
+        };
+
+        Map<String, String> valuesById = new LinkedHashMap<>();
+        for (String[] pair : fieldIds) {
+            String value = data.get(pair[0]);
+            if (value != null && !value.isEmpty()) {
+                valuesById.put(pair[1], value); // Empty values are skipped, as typing "" does nothing
+            }
+        }
+
+        Map<String, String> results = elementUtils.fillFields(valuesById);
+        List<String> unfilled = ElementUtils.unfilledFields(results);
+        if (!unfilled.isEmpty()) {
+            logger.warn("Contact Us fields not filled: " + unfilled);
+            throw new NoSuchElementException("Could not fill Contact Us fields: " + unfilled); // Same failure as the typed path
+        }
+        return results; // Per-field result
+    }
+
+    private void typeContactUsForm(Map<String, String> data) {
         logger.info("Filling Contact Us form with data: " + data);
 
-        wait.until(ExpectedConditions.visibilityOf(nameInput)).sendKeys(data.get("Name"));
-        wait.until(ExpectedConditions.visibilityOf(emailInput)).sendKeys(data.get("Email"));
-        wait.until(ExpectedConditions.visibilityOf(subjectInput)).sendKeys(data.get("Subject"));
-        wait.until(ExpectedConditions.visibilityOf(messageInput)).sendKeys(data.get("Message"));
+        wait.visibilityOf(nameInput, "contact_name").sendKeys(data.get("Name"));
+        wait.visibilityOf(emailInput, "contact_email").sendKeys(data.get("Email"));
+        wait.visibilityOf(subjectInput, "contact_subject").sendKeys(data.get("Subject"));
+        wait.visibilityOf(messageInput, "contact_message").sendKeys(data.get("Message"));
     }
 
     // Click the "Send Message Now" button using JavaScript
-    public void clickSendMessage() {
+    public double clickSendMessage() {
         logger.info("Clicking 'Send Message Now' button using JavaScript.");
-        JavascriptExecutor js = (JavascriptExecutor) driver;
-        js.executeScript("handleContact(event)"); // Trigger form submission
+        double handlerMillis = elementUtils.runAndSettle("handleContact(event)"); // Trigger form submission and wait for it
+        logger.info("'Send Message Now' handler completed in " + String.format("%.1f", handlerMillis) + " ms");
+        return handlerMillis; // Submit latency
     }
 
     // Get the success message after form submission
     public String getSuccessMessage() {
         logger.info("Waiting for success message...");
-        wait.until(ExpectedConditions.textToBePresentInElement(messageTab, "Your message has been sent !")); // Wait for confirmation text
-
-        String message = messageTab.getText().trim();
+        String message = wait.textToBePresentInElement(messageTab, "Your message has been sent !", "mesgtab"); // Wait for confirmation text
         logger.info("Success message: " + message);
         return message; // Return success message
     }
@@ -78,7 +126,7 @@ public class ContactUsPage {
         logger.info("Looking for validation message with ID: " + errorId);
 
         try {
-            WebElement errorDiv = wait.until(ExpectedConditions.visibilityOfElementLocated(By.id(errorId)));
+            WebElement errorDiv = wait.visibilityOfElementWithId(errorId);
             String message = errorDiv.getText().trim();
             logger.info("Validation message for '" + fieldId + "': " + message);
             return message; // Return validation message
@@ -92,6 +140,21 @@ public class ContactUsPage {
     public List<String> getInvalidRequiredFields() {
         logger.info("Checking validation errors...");
 
+        List<String> invalidFields = new ArrayList<>();
+        for (Map.Entry<String, String> error : getValidationErrors().entrySet()) {
+            if (error.getValue() != null && !error.getValue().isEmpty()) {
+                logger.debug("Error in field: " + error.getKey());
+                invalidFields.add(error.getKey()); // Add field with error
+            }
+        }
+
+        logger.info("Invalid fields found: " + invalidFields);
+        return invalidFields; // Return list of invalid fields
+    }
+
+    // Read every field's error message with one script call, without waiting.
+    // Missing error elements are reported with a null message.
+    public Map<String, String> getValidationErrors() {
         String[][] fieldErrorIds = {
             {"contact_name", "contactNameErr"},
             {"contact_email", "contactEmailErr"},
@@ -99,22 +162,21 @@ public class ContactUsPage {
             {"contact_message", "contactMessageErr"}
         };
 
-        List<String> invalidFields = new ArrayList<>();
+        List<String> errorIds = new ArrayList<>();
+        for (String[] pair : fieldErrorIds) {
+            errorIds.add(pair[1]);
+        }
+        Map<String, String> texts = elementUtils.readTexts(errorIds); // Single round trip, no implicit wait
 
+        Map<String, String> errors = new LinkedHashMap<>();
         for (String[] pair : fieldErrorIds) {
-            try {
-                WebElement errorElement = driver.findElement(By.id(pair[1]));
-                if (!errorElement.getText().trim().isEmpty()) {
-                    logger.debug("Error in field: " + pair[0]);
-                    invalidFields.add(pair[0]); // Add field with error
-                }
-            } catch (NoSuchElementException e) {
+            String message = texts.get(pair[1]);
+            if (message == null) {
                 logger.warn("Error element not found for field: " + pair[0]);
             }
+            errors.put(pair[0], message);
         }
-
-        logger.info("Invalid fields found: " + invalidFields);
-        return invalidFields; // Return list of invalid fields
+        return errors; // Field -> error message
     }
 
 }
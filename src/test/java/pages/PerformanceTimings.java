@@ -0,0 +1,123 @@
+package pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+
+/**
+ * Reads the browser's Navigation, Resource and Paint Timing entries so steps can assert
+ * front-end performance budgets. Submissions are measured from a {@link #markSubmit} mark to the
+ * moment the result element first shows text, recorded in the page by a MutationObserver.
+ */
+public class PerformanceTimings {
+
+    private static final Logger logger = LogManager.getLogger(PerformanceTimings.class);
+
+    // Shared by both collectors: resource count, transferred bytes and the five slowest entries started after 'since'
+    private static final String RESOURCES =
+        "function resources(since) {" +
+        "  var list = performance.getEntriesByType('resource').filter(function (r) { return r.startTime >= since; });" +
+        "  var bytes = list.reduce(function (sum, r) { return sum + (r.transferSize || 0); }, 0);" +
+        "  var slowest = list.slice().sort(function (a, b) { return b.duration - a.duration; }).slice(0, 5)" +
+        "    .map(function (r) { return { name: r.name, type: r.initiatorType, duration: r.duration, transferSize: r.transferSize || 0 }; });" +
+        "  return { count: list.length, transferSize: bytes, slowest: slowest };" +
+        "}";
+
+    // arguments: ms since navigation start after which to stop waiting for the load event, callback.
+    // With the "eager" and "none" page-load strategies loadEventEnd is still 0 when the step runs, so this
+    // checks every 50 ms until the load event has finished (or the limit has passed) before collecting.
+    private static final String NAVIGATION_SCRIPT = RESOURCES +
+        "var limit = arguments[0], done = arguments[arguments.length - 1];" +
+        "function collect() {" +
+        "  var nav = performance.getEntriesByType('navigation')[0], paint = {};" +
+        "  performance.getEntriesByType('paint').forEach(function (p) { paint[p.name] = p.startTime; });" +
+        "  return { navigation: nav ? { responseStart: nav.responseStart, domInteractive: nav.domInteractive," +
+        "    domContentLoaded: nav.domContentLoadedEventEnd, load: nav.loadEventEnd, duration: nav.duration," +
+        "    transferSize: nav.transferSize || 0 } : null, paint: paint, resources: resources(0) };" +
+        "}" +
+        "(function check() {" +
+        "  var nav = performance.getEntriesByType('navigation')[0];" +
+        "  if (!nav || nav.loadEventEnd > 0 || performance.now() >= limit) { done(collect()); return; }" +
+        "  setTimeout(check, 50);" +
+        "})();";
+
+    private static final long MAX_SCRIPT_MILLIS = 20_000; // Stay below the driver's default 30 s script timeout
+
+    // arguments: mark name, ID of the element whose first text marks completion
+    private static final String MARK_SCRIPT =
+        "var name = arguments[0], el = document.getElementById(arguments[1]);" +
+        "window.__perfDone = window.__perfDone || {}; delete window.__perfDone[name];" +
+        "performance.clearMarks(name); performance.mark(name);" +
+        "if (!el) { return; }" +
+        "var observer = new MutationObserver(function () {" +
+        "  if (el.innerText.trim().length > 0) { window.__perfDone[name] = performance.now(); observer.disconnect(); }" +
+        "});" +
+        "observer.observe(el, { subtree: true, childList: true, characterData: true, attributes: true });";
+
+    // arguments: mark name. Returns null when the mark was never set.
+    private static final String SUBMIT_SCRIPT = RESOURCES +
+        "var name = arguments[0], mark = performance.getEntriesByName(name, 'mark')[0];" +
+        "if (!mark) { return null; }" +
+        "var done = (window.__perfDone || {})[name];" +
+        "return { completed: done !== undefined, duration: (done !== undefined ? done : performance.now()) - mark.startTime," +
+        "  resources: resources(mark.startTime) };";
+
+    private final WebDriver driver;
+
+    public PerformanceTimings(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Waits for the load event to finish, then reads the timings. Works with every page-load strategy.
+     * @param limitMillis Stop waiting once this long has passed since navigation start, e.g. the load budget;
+     *                    "load" is then 0 if the page has not finished loading.
+     * @return "navigation" (responseStart, domInteractive, domContentLoaded, load, duration, transferSize in ms/bytes),
+     *         "paint" (first-paint, first-contentful-paint) and "resources" (count, transferSize, slowest).
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> navigation(long limitMillis) {
+        Map<String, Object> timings = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(
+            NAVIGATION_SCRIPT, Math.min(limitMillis, MAX_SCRIPT_MILLIS));
+        logger.info("Navigation timings: " + timings);
+        return timings;
+    }
+
+    /**
+     * Marks the start of a submission; call right before the click.
+     * @param name Mark name, e.g. "booking-submit".
+     * @param resultElementId Element whose first non-empty text ends the submission.
+     */
+    public void markSubmit(String name, String resultElementId) {
+        ((JavascriptExecutor) driver).executeScript(MARK_SCRIPT, name, resultElementId);
+    }
+
+    /**
+     * @return "completed", "duration" (ms from the mark to the result text, or to now if not completed) and
+     *         "resources" loaded since the mark; null if {@link #markSubmit} was not called on this page.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> submission(String name) {
+        Map<String, Object> timings = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(SUBMIT_SCRIPT, name);
+        logger.info("Submission timings for '" + name + "': " + timings);
+        return timings;
+    }
+
+    /**
+     * @return The numeric value at the given path, e.g. {@code number(timings, "navigation", "load")}; -1 if absent.
+     */
+    @SuppressWarnings("unchecked")
+    public static double number(Map<String, Object> timings, String... path) {
+        Object value = timings;
+        for (String key : path) {
+            if (!(value instanceof Map)) {
+                return -1;
+            }
+            value = ((Map<String, Object>) value).get(key);
+        }
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+}
@@ -0,0 +1,170 @@
+package plugins;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import utils.ConfigReader;
+import utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cucumber plugin that records the duration of every step (per step definition), hook and scenario in
+ * {@link LatencyHistogram}s, writes them as JSON to the file given in the plugin argument and compares
+ * p50/p95/p99 with a stored baseline. Steps whose p95 grew by more than "step.timing.threshold" (and by
+ * at least "step.timing.minDeltaMillis") are logged as regressions and listed in the output file.
+ * Run with -Dstep.timing.updateBaseline=true to store the current run as the new baseline.
+ * Usage: {@code plugin = "plugins.StepTimingPlugin:target/cucumber-reports/step-timings.json"}.
+ */
+public class StepTimingPlugin implements ConcurrentEventListener {
+
+    private static final Logger logger = LogManager.getLogger(StepTimingPlugin.class);
+    private static final String[] PERCENTILES = {"p50Millis", "p95Millis", "p99Millis"};
+
+    private final Path output; // Per-run timings
+    private final Map<String, LatencyHistogram> timings = new ConcurrentHashMap<>(); // "step|hook|scenario name" -> durations
+
+    public StepTimingPlugin(String output) {
+        this.output = Paths.get(output);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> onRunFinished());
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        String key = keyOf(event.getTestStep());
+        if (key != null) {
+            record(key, event.getResult().getDuration().toNanos());
+        }
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        record("scenario " + event.getTestCase().getName(), event.getResult().getDuration().toNanos());
+    }
+
+    private void record(String key, long nanos) {
+        timings.computeIfAbsent(key, k -> new LatencyHistogram()).record(nanos / 1_000_000.0);
+    }
+
+    // Steps are grouped by step definition so the same method used by several scenarios shares one histogram
+    private static String keyOf(TestStep step) {
+        String location = step.getCodeLocation();
+        if (location == null) {
+            return null; // Undefined step
+        }
+        if (step instanceof PickleStepTestStep) {
+            return "step " + location;
+        }
+        if (step instanceof HookTestStep) {
+            return "hook " + location;
+        }
+        return null;
+    }
+
+    private void onRunFinished() {
+        ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+        Path baselineFile = Paths.get(config.getProperty("step.timing.baseline", "src/test/resources/baseline/step-timings.json"));
+        double threshold = config.getDouble("step.timing.threshold", 0.25);
+        long minDelta = config.getLong("step.timing.minDeltaMillis", 50);
+
+        Map<String, Object> current = new TreeMap<>();
+        timings.forEach((key, histogram) -> current.put(key, histogram.toMap()));
+        Map<String, Map<String, Object>> baseline = readBaseline(baselineFile);
+
+        Map<String, Object> comparison = new TreeMap<>();
+        List<String> regressions = new ArrayList<>();
+        timings.forEach((key, histogram) -> {
+            Map<String, Object> before = baseline.get(key);
+            if (before == null) {
+                return;
+            }
+            Map<String, Object> now = histogram.toMap();
+            Map<String, Object> deltas = new LinkedHashMap<>();
+            for (String percentile : PERCENTILES) {
+                deltas.put(percentile, new double[] {
+                    ((Number) before.getOrDefault(percentile, 0)).doubleValue(), ((Number) now.get(percentile)).doubleValue()});
+            }
+            comparison.put(key, deltas);
+            double was95 = ((Number) before.getOrDefault("p95Millis", 0)).doubleValue();
+            double now95 = histogram.percentile(95);
+            if (now95 > was95 * (1 + threshold) && now95 - was95 >= minDelta) {
+                regressions.add(key);
+                logger.warn(String.format("Step timing regression: %s p95 %.1f ms -> %.1f ms", key, was95, now95));
+            }
+        });
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("timings", current);
+        json.put("baseline", baselineFile.toString());
+        json.put("comparison", comparison); // Key -> percentile -> [baseline, current]
+        json.put("regressions", regressions);
+        write(output, json);
+        logger.info("Step timings written to " + output.toAbsolutePath() + (baseline.isEmpty()
+            ? " (no baseline at " + baselineFile + ")"
+            : ", " + regressions.size() + " regression(s) against " + baselineFile));
+
+        if (config.getBoolean("step.timing.updateBaseline", false)) {
+            Map<String, Object> newBaseline = new LinkedHashMap<>();
+            newBaseline.put("timings", current);
+            write(baselineFile, newBaseline);
+            logger.info("Step timing baseline updated: " + baselineFile.toAbsolutePath());
+        }
+    }
+
+    private static Map<String, Map<String, Object>> readBaseline(Path file) {
+        if (!Files.exists(file)) {
+            return new LinkedHashMap<>();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Map<String, Map<String, Object>>> json = new Gson().fromJson(reader,
+                new TypeToken<Map<String, Map<String, Map<String, Object>>>>() { }.getType());
+            return json == null || json.get("timings") == null ? new LinkedHashMap<>() : json.get("timings");
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable step timing baseline " + file + ": " + e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+
+    private static void write(Path file, Map<String, Object> json) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                new Gson().toJson(json, writer); // Compact, one line per run
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Could not write " + file + ": " + e.getMessage());
+        }
+    }
+}
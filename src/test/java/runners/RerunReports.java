@@ -0,0 +1,123 @@
+package runners;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Cleans up the reports written by the Cucumber plugins after an in-JVM rerun: the JSON report keeps only
+ * the last attempt of each rerun scenario (tagged @flaky when it passed), and the rerun file keeps only
+ * scenarios that failed every attempt. Scenarios are identified by {@link ScenarioScheduler#keyOf}.
+ */
+class RerunReports {
+
+    private static final Logger logger = LogManager.getLogger(RerunReports.class);
+    static final String FLAKY_TAG = "@flaky"; // Added to scenarios that passed on a rerun
+
+    private RerunReports() {
+    }
+
+    /**
+     * @param rerunKeys Every scenario that was rerun.
+     * @param flakyKeys Rerun scenarios whose last attempt passed.
+     */
+    static void collapseJson(Path report, Set<String> rerunKeys, Set<String> flakyKeys) {
+        if (!Files.isRegularFile(report)) {
+            return;
+        }
+        try {
+            JsonArray features;
+            try (Reader reader = Files.newBufferedReader(report, StandardCharsets.UTF_8)) {
+                features = JsonParser.parseReader(reader).getAsJsonArray();
+            }
+            for (JsonElement featureElement : features) {
+                JsonObject feature = featureElement.getAsJsonObject();
+                String uri = feature.get("uri").getAsString().replace('\\', '/');
+                String file = uri.substring(uri.lastIndexOf('/') + 1);
+
+                // Backgrounds belong to the scenario that follows; later attempts replace earlier ones in place
+                Map<String, List<JsonElement>> groups = new LinkedHashMap<>();
+                List<JsonElement> group = new ArrayList<>();
+                int unique = 0;
+                JsonElement elements = feature.get("elements");
+                for (JsonElement element : elements == null ? new JsonArray() : elements.getAsJsonArray()) {
+                    group.add(element);
+                    JsonObject scenario = element.getAsJsonObject();
+                    if ("background".equals(scenario.get("type").getAsString())) {
+                        continue;
+                    }
+                    String key = file + ":" + scenario.get("line").getAsInt();
+                    if (!rerunKeys.contains(key)) {
+                        key = key + "#" + unique++; // Never collapse scenarios that were not rerun
+                    } else if (flakyKeys.contains(key)) {
+                        JsonObject tag = new JsonObject();
+                        tag.addProperty("name", FLAKY_TAG);
+                        scenario.getAsJsonArray("tags").add(tag);
+                    }
+                    groups.put(key, group);
+                    group = new ArrayList<>();
+                }
+                JsonArray collapsed = new JsonArray();
+                groups.values().forEach(kept -> kept.forEach(collapsed::add));
+                feature.add("elements", collapsed);
+            }
+            try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+                new GsonBuilder().setPrettyPrinting().create().toJson(features, writer);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not collapse rerun attempts in " + report + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes passed-on-rerun scenarios from a rerun plugin file, keeping its "path:line:line" format.
+     */
+    static void filterRerunFile(Path rerunFile, Set<String> flakyKeys) {
+        if (!Files.isRegularFile(rerunFile)) {
+            return;
+        }
+        try {
+            StringBuilder kept = new StringBuilder();
+            for (String entry : new String(Files.readAllBytes(rerunFile), StandardCharsets.UTF_8).trim().split("\\s+")) {
+                int colon = entry.indexOf(':', entry.lastIndexOf(".feature"));
+                if (entry.isEmpty() || colon < 0) {
+                    continue;
+                }
+                String path = entry.substring(0, colon);
+                String file = path.substring(path.replace('\\', '/').lastIndexOf('/') + 1);
+                Set<Integer> lines = new TreeSet<>();
+                for (String line : entry.substring(colon + 1).split(":")) {
+                    if (!flakyKeys.contains(file + ":" + line)) {
+                        lines.add(Integer.parseInt(line));
+                    }
+                }
+                if (!lines.isEmpty()) {
+                    kept.append(path);
+                    lines.forEach(line -> kept.append(':').append(line));
+                    kept.append('\n');
+                }
+            }
+            Files.write(rerunFile, kept.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not update rerun file " + rerunFile + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package runners;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Estimates scenario durations from earlier Cucumber JSON reports and orders scenarios
+ * longest-processing-time first, so the slowest scenarios start early and the workers finish together.
+ * Scenarios without history are estimated from the average of known scenarios sharing a tag,
+ * then from the overall average.
+ */
+class ScenarioScheduler {
+
+    private static final Logger logger = LogManager.getLogger(ScenarioScheduler.class);
+    private static final double DEFAULT_ESTIMATE_MILLIS = 10_000; // Used when there is no history at all
+
+    private final Map<String, Double> history = new HashMap<>(); // "file.feature:line" -> average ms
+    private final Map<String, double[]> tagTotals = new HashMap<>(); // Tag -> {total ms, count}
+    private double overallAverage = DEFAULT_ESTIMATE_MILLIS;
+
+    /**
+     * @param reports Cucumber JSON reports of earlier runs; missing or unreadable files are skipped.
+     */
+    ScenarioScheduler(List<Path> reports) {
+        Map<String, double[]> totals = new HashMap<>();
+        for (Path report : reports) {
+            read(report, totals);
+        }
+        double sum = 0;
+        for (Map.Entry<String, double[]> entry : totals.entrySet()) {
+            double average = entry.getValue()[0] / entry.getValue()[1];
+            history.put(entry.getKey(), average);
+            sum += average;
+        }
+        if (!history.isEmpty()) {
+            overallAverage = sum / history.size();
+        }
+        logger.info("Scenario history: " + history.size() + " scenario(s) from " + reports);
+    }
+
+    /**
+     * @return Feature file name and pickle line, e.g. "BookingForm.feature:8"; stable across machines.
+     */
+    static String keyOf(Pickle pickle) {
+        return fileName(pickle.getUri()) + ":" + pickle.getLine();
+    }
+
+    /**
+     * @return The estimated duration in ms: history, else tag average, else overall average.
+     */
+    double estimate(Pickle pickle) {
+        Double known = history.get(keyOf(pickle));
+        if (known != null) {
+            return known;
+        }
+        double total = 0;
+        double count = 0;
+        for (String tag : pickle.getTags()) {
+            double[] tagTotal = tagTotals.get(tag);
+            if (tagTotal != null) {
+                total += tagTotal[0];
+                count += tagTotal[1];
+            }
+        }
+        return count > 0 ? total / count : overallAverage;
+    }
+
+    /**
+     * @return The data provider rows sorted by estimated duration, longest first (stable for equal estimates).
+     */
+    Object[][] longestFirst(Object[][] scenarios) {
+        Object[][] ordered = Arrays.copyOf(scenarios, scenarios.length);
+        Arrays.sort(ordered, Comparator.comparingDouble((Object[] row) -> estimate(pickleOf(row))).reversed());
+        return ordered;
+    }
+
+    /**
+     * Simulates handing the rows, in order, to the least busy of {@code workers} workers.
+     * @return The predicted time until the last worker finishes, in ms.
+     */
+    double predictMakespan(Object[][] scenarios, int workers) {
+        double[] loads = assign(scenarios, workers, null);
+        return Arrays.stream(loads).max().orElse(0);
+    }
+
+    /**
+     * Assigns the rows, in order, to the least loaded of {@code bins} bins.
+     * @param bin Receives the bin index of each row when not null.
+     * @return The estimated load of each bin in ms.
+     */
+    double[] assign(Object[][] scenarios, int bins, int[] bin) {
+        double[] loads = new double[Math.max(1, bins)];
+        PriorityQueue<Integer> leastLoaded = new PriorityQueue<>(
+            Comparator.comparingDouble((Integer i) -> loads[i]).thenComparingInt(i -> i));
+        for (int i = 0; i < loads.length; i++) {
+            leastLoaded.add(i);
+        }
+        for (int row = 0; row < scenarios.length; row++) {
+            int target = leastLoaded.poll();
+            loads[target] += estimate(pickleOf(scenarios[row]));
+            leastLoaded.add(target);
+            if (bin != null) {
+                bin[row] = target;
+            }
+        }
+        return loads;
+    }
+
+    /**
+     * Keeps the rows of one shard, chosen by a CRC32 of {@link #keyOf}. Needs no history, so every
+     * machine picks the same scenarios, and a scenario stays on its shard when others are added.
+     * @param index 1-based shard index.
+     */
+    static Object[][] hashShard(Object[][] scenarios, int index, int count) {
+        List<Object[]> selected = new ArrayList<>();
+        for (Object[] row : scenarios) {
+            CRC32 crc = new CRC32();
+            crc.update(keyOf(pickleOf(row)).getBytes(StandardCharsets.UTF_8));
+            if (crc.getValue() % count == index - 1) {
+                selected.add(row);
+            }
+        }
+        return selected.toArray(new Object[0][]);
+    }
+
+    /**
+     * Keeps the rows of one shard from a longest-first plan over all shards, so the shards take about
+     * equally long. Every machine must read the same history for the plans to agree.
+     * @param index 1-based shard index.
+     */
+    Object[][] balancedShard(Object[][] scenarios, int index, int count) {
+        Object[][] ordered = longestFirst(scenarios);
+        int[] bins = new int[ordered.length];
+        double[] loads = assign(ordered, count, bins);
+        List<Object[]> selected = new ArrayList<>();
+        for (int row = 0; row < ordered.length; row++) {
+            if (bins[row] == index - 1) {
+                selected.add(ordered[row]);
+            }
+        }
+        logger.info("Balanced shard plan (estimated s per shard): " + Arrays.toString(
+            Arrays.stream(loads).map(millis -> Math.round(millis / 100) / 10.0).toArray()));
+        return selected.toArray(new Object[0][]);
+    }
+
+    static Pickle pickleOf(Object[] row) {
+        return ((PickleWrapper) row[0]).getPickle();
+    }
+
+    // Scenario duration = its background, hooks and steps; Cucumber JSON durations are in nanoseconds
+    private void read(Path report, Map<String, double[]> totals) {
+        if (!Files.isRegularFile(report)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(report, StandardCharsets.UTF_8)) {
+            for (JsonElement featureElement : JsonParser.parseReader(reader).getAsJsonArray()) {
+                JsonObject feature = featureElement.getAsJsonObject();
+                String uri = feature.get("uri").getAsString().replace('\\', '/');
+                String file = uri.substring(uri.lastIndexOf('/') + 1);
+                double background = 0;
+                for (JsonElement element : array(feature, "elements")) {
+                    JsonObject scenario = element.getAsJsonObject();
+                    double millis = duration(scenario, "before") + duration(scenario, "steps") + duration(scenario, "after");
+                    if ("background".equals(scenario.get("type").getAsString())) {
+                        background += millis; // Belongs to the scenario that follows
+                        continue;
+                    }
+                    millis += background;
+                    background = 0;
+                    double[] total = totals.computeIfAbsent(file + ":" + scenario.get("line").getAsInt(), k -> new double[2]);
+                    total[0] += millis;
+                    total[1]++;
+                    for (JsonElement tag : array(scenario, "tags")) {
+                        double[] tagTotal = tagTotals.computeIfAbsent(tag.getAsJsonObject().get("name").getAsString(), k -> new double[2]);
+                        tagTotal[0] += millis;
+                        tagTotal[1]++;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable report " + report + ": " + e.getMessage());
+        }
+    }
+
+    private static double duration(JsonObject scenario, String section) {
+        double millis = 0;
+        for (JsonElement step : array(scenario, section)) {
+            JsonObject result = step.getAsJsonObject().getAsJsonObject("result");
+            if (result != null && result.has("duration")) {
+                millis += result.get("duration").getAsLong() / 1_000_000.0;
+            }
+        }
+        return millis;
+    }
+
+    private static JsonArray array(JsonObject object, String name) {
+        JsonElement value = object.get(name);
+        return value != null && value.isJsonArray() ? value.getAsJsonArray() : new JsonArray();
+    }
+
+    private static String fileName(URI uri) {
+        String path = uri.getSchemeSpecificPart();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * @param value Comma-separated report paths from config.
+     */
+    static List<Path> paths(String value) {
+        List<Path> paths = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                paths.add(Paths.get(item.trim()));
+            }
+        }
+        return paths;
+    }
+}
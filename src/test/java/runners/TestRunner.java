@@ -2,6 +2,40 @@ package runners;
 
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+
+import BaseClass.libraryClass;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
+import org.testng.Reporter;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.gson.GsonBuilder;
+
+import utils.ConfigReader;
+import utils.LocalAppServer;
+import utils.RerunAttempt;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 
 /**
@@ -25,7 +59,8 @@ import io.cucumber.testng.CucumberOptions;
         "json:target/cucumber-reports/CucumberTestReport.json", // Generates a JSON report
         "timeline:target/test-output-thread/", // Generates a timeline report for parallel execution
         "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:", // Integrates with ExtentReports
-        "rerun:target/failed-scenario.txt"
+        "rerun:target/failed-scenario.txt",
+        "plugins.StepTimingPlugin:target/cucumber-reports/step-timings.json" // Step/hook/scenario percentiles against a baseline
     },
 
     // Specifies which tags to execute or ignore
@@ -38,5 +73,216 @@ import io.cucumber.testng.CucumberOptions;
     monochrome = true
 )
 public class TestRunner extends AbstractTestNGCucumberTests {
-	 	
+
+    private static final Logger logger = LogManager.getLogger(TestRunner.class);
+
+    private static final String RERUN_FILE = "target/failed-scenario.txt"; // Same path as the rerun plugin above
+    private static final String REPORT_DIR = "target/cucumber-reports"; // Same directory as the json plugin above
+    private static final String SHARD_DIR = shardDir(); // Per-shard output directory, null when not sharded
+
+    private long startNanos; // When scenarios were handed to TestNG
+    private double predictedMakespan = -1; // Scheduler's estimate in ms, -1 when not scheduled
+    private final Queue<Object[]> failedScenarios = new ConcurrentLinkedQueue<>(); // {PickleWrapper, FeatureWrapper} to rerun
+    private final Set<String> rerunKeys = new HashSet<>(); // Scenarios that were rerun, as ScenarioScheduler keys
+    private final Set<String> flakyKeys = new HashSet<>(); // Rerun scenarios that passed on a later attempt
+
+    static {
+        if (SHARD_DIR != null && System.getProperty("cucumber.plugin") == null) {
+            // Forks on one machine share target/, so each shard also writes its own JSON and rerun file
+            System.setProperty("cucumber.plugin",
+                "json:" + SHARD_DIR + "/CucumberTestReport.json, rerun:" + SHARD_DIR + "/failed-scenario.txt");
+        }
+        if (ConfigReader.getInstance().getBoolean("app.local", false)) {
+            LocalAppServer.getInstance(); // Serve the application snapshot before the first scenario
+        }
+        libraryClass.prewarmBrowsers(); // Start browsers while Cucumber parses features (opt-in via config)
+    }
+
+    /**
+     * Configures the number of parallel scenario workers from the "threads" config key.
+     * A value of 1 keeps the original serial execution.
+     */
+    @Override
+    @BeforeClass(alwaysRun = true)
+    public void setUpClass(ITestContext context) {
+        super.setUpClass(context);
+        int threads = readThreadCount();
+        context.getCurrentXmlTest().getSuite().setDataProviderThreadCount(threads); // Size the scenario worker pool
+        logger.info("Running scenarios with " + threads + " worker thread(s).");
+    }
+
+    /**
+     * Supplies scenarios to TestNG in parallel; each worker thread gets its own WebDriver.
+     * With "shard.count" above 1 only the scenarios of shard "shard.index" (1-based) are run, chosen by
+     * a stable hash or, with "shard.mode=balanced", by a duration-balanced plan.
+     * With more than one worker the scenarios are ordered longest first, based on earlier reports
+     * ("schedule.history"), so a slow scenario does not start last while the other workers sit idle.
+     */
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        Object[][] scenarios = super.scenarios();
+        ConfigReader config = ConfigReader.getInstance(); // Shared configuration snapshot
+        int threads = readThreadCount();
+        ScenarioScheduler scheduler = null;
+
+        int shardCount = config.getInt("shard.count", 1);
+        if (shardCount > 1) {
+            int shardIndex = config.getInt("shard.index", 1);
+            if (shardIndex < 1 || shardIndex > shardCount) {
+                throw new IllegalStateException("shard.index must be between 1 and " + shardCount + ", was " + shardIndex);
+            }
+            int total = scenarios.length;
+            if ("balanced".equalsIgnoreCase(config.getProperty("shard.mode", "hash"))) {
+                scheduler = newScheduler(config);
+                scenarios = scheduler.balancedShard(scenarios, shardIndex, shardCount);
+            } else {
+                scenarios = ScenarioScheduler.hashShard(scenarios, shardIndex, shardCount);
+            }
+            logger.info("Shard " + shardIndex + " of " + shardCount + ": " + scenarios.length + " of " + total + " scenario(s).");
+        }
+
+        if (threads > 1 && config.getBoolean("schedule.longestFirst", true)) {
+            if (scheduler == null) {
+                scheduler = newScheduler(config);
+            }
+            double fileOrder = scheduler.predictMakespan(scenarios, threads);
+            scenarios = scheduler.longestFirst(scenarios);
+            predictedMakespan = scheduler.predictMakespan(scenarios, threads);
+            logger.info(String.format("Predicted makespan with %d workers: %.1f s longest-first (%.1f s in feature order).",
+                threads, predictedMakespan / 1000, fileOrder / 1000));
+        }
+        startNanos = System.nanoTime();
+        return scenarios;
+    }
+
+    /**
+     * Runs one scenario. With "rerun.attempts" above 0 a failure is reported as skipped and the scenario
+     * is queued for {@link #rerunFailedScenarios()}, which decides the final outcome.
+     */
+    @Override
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios")
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        try {
+            super.runScenario(pickleWrapper, featureWrapper);
+        } catch (SkipException e) {
+            throw e; // Pending or skipped steps are not retried
+        } catch (Throwable e) {
+            if (readRerunAttempts() == 0) {
+                throw e;
+            }
+            failedScenarios.add(new Object[] {pickleWrapper, featureWrapper});
+            throw new SkipException("Failed, queued for rerun: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reruns the scenarios that failed in the main pass, in this JVM with the warm browser pool, up to
+     * "rerun.attempts" times each. Scenarios that pass on a rerun are reported as flaky; this test fails
+     * if any scenario failed every attempt. The outcome is written to target/cucumber-reports/rerun-summary.json.
+     */
+    @Test(dependsOnMethods = "runScenario", alwaysRun = true, description = "Reruns failed Cucumber Scenarios")
+    public void rerunFailedScenarios() {
+        int attempts = readRerunAttempts();
+        if (attempts == 0 || failedScenarios.isEmpty()) {
+            return;
+        }
+        logger.info("Rerunning " + failedScenarios.size() + " failed scenario(s), up to " + attempts + " attempt(s) each.");
+
+        List<String> flaky = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (Object[] row : failedScenarios) {
+            Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+            String key = ScenarioScheduler.keyOf(pickle);
+            String name = pickle.getName() + " (" + key + ")";
+            rerunKeys.add(key);
+            Throwable lastFailure = null;
+            for (int attempt = 1; attempt <= attempts; attempt++) {
+                RerunAttempt.begin(attempt, attempts); // Lets the hooks mark this attempt in the reports
+                try {
+                    super.runScenario((PickleWrapper) row[0], (FeatureWrapper) row[1]);
+                    lastFailure = null;
+                    break;
+                } catch (Throwable e) {
+                    lastFailure = e;
+                    logger.warn("Rerun " + attempt + " of " + attempts + " failed for " + name + ": " + e.getMessage());
+                } finally {
+                    RerunAttempt.end();
+                }
+            }
+            if (lastFailure == null) {
+                flaky.add(name);
+                flakyKeys.add(key);
+                Reporter.log("FLAKY (passed on rerun): " + name);
+            } else {
+                failed.add(name);
+                Reporter.log("FAILED (every attempt): " + name + " - " + lastFailure.getMessage());
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("attempts", attempts);
+        summary.put("flaky", flaky);
+        summary.put("failed", failed);
+        write(Paths.get(SHARD_DIR != null ? SHARD_DIR : REPORT_DIR, "rerun-summary.json"),
+            new GsonBuilder().setPrettyPrinting().create().toJson(summary));
+        logger.info("Rerun finished: " + flaky.size() + " flaky, " + failed.size() + " failed.");
+        if (!failed.isEmpty()) {
+            throw new AssertionError(failed.size() + " scenario(s) failed every attempt: " + failed);
+        }
+    }
+
+    /**
+     * Reports the actual run time next to the scheduler's prediction.
+     */
+    @Override
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass() {
+        if (predictedMakespan >= 0) {
+            logger.info(String.format("Makespan: predicted %.1f s, actual %.1f s.",
+                predictedMakespan / 1000, (System.nanoTime() - startNanos) / 1e9));
+        }
+        super.tearDownClass(); // Plugins write their reports here
+        if (!rerunKeys.isEmpty()) {
+            // One entry per scenario in the JSON report (and so in the schedule history and merged shards),
+            // and a rerun file that lists only scenarios that never passed
+            List<String> dirs = SHARD_DIR != null ? List.of(REPORT_DIR, SHARD_DIR) : List.of(REPORT_DIR);
+            for (String dir : dirs) {
+                RerunReports.collapseJson(Paths.get(dir, "CucumberTestReport.json"), rerunKeys, flakyKeys);
+            }
+            RerunReports.filterRerunFile(Paths.get(RERUN_FILE), flakyKeys);
+            if (SHARD_DIR != null) {
+                RerunReports.filterRerunFile(Paths.get(SHARD_DIR, "failed-scenario.txt"), flakyKeys);
+            }
+        }
+    }
+
+    private static ScenarioScheduler newScheduler(ConfigReader config) {
+        return new ScenarioScheduler(ScenarioScheduler.paths(
+            config.getProperty("schedule.history", "target/cucumber-reports/CucumberTestReport.json")));
+    }
+
+    private static int readRerunAttempts() {
+        return Math.max(0, ConfigReader.getInstance().getInt("rerun.attempts", 0));
+    }
+
+    private static String shardDir() {
+        int shardCount = ConfigReader.getInstance().getInt("shard.count", 1);
+        return shardCount > 1
+            ? "target/shards/shard-" + ConfigReader.getInstance().getInt("shard.index", 1) + "-of-" + shardCount
+            : null;
+    }
+
+    private static void write(Path file, String content) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Could not write " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static int readThreadCount() {
+        return Math.max(1, ConfigReader.getInstance().getInt("threads", 1)); // -Dthreads or THREADS override the file
+    }
 }
@@ -1,6 +1,10 @@
 package stepDefinitions;
 
 import BaseClass.libraryClass;
+import com.google.gson.GsonBuilder;
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.When;
 import io.cucumber.java.en.Then;
@@ -13,6 +17,7 @@ import org.testng.Assert;
 
 import pages.BookingPage;
 import pages.ContactUsPage;
+import pages.PerformanceTimings;
 import utils.ExcelReader;
 
 import java.io.IOException;
@@ -24,22 +29,38 @@ import java.util.Map;
  */
 public class FormSteps {
 
-    protected static WebDriver driver;
+    private final WebDriver driver;
     private final BookingPage bookingPage;
     private final ContactUsPage contactUsPage;
+    private final PerformanceTimings performanceTimings;
+    private Scenario scenario; // Current scenario, for report attachments
     private static final Logger logger = LogManager.getLogger(FormSteps.class);
+    private static final String TEST_DATA_PATH = "src/test/resources/testData/EventManagementTestData.xlsx"; // Test data workbook
 
     public FormSteps() {
-        FormSteps.driver = libraryClass.getDriver(); // Get shared WebDriver
+        this.driver = libraryClass.getDriver(); // Get the current thread's WebDriver
         this.bookingPage = new BookingPage(driver); // Initialize BookingPage
         this.contactUsPage = new ContactUsPage(driver); // Initialize ContactUsPage
-        logger.info("FormSteps initialized with shared WebDriver instance.");
+        this.performanceTimings = new PerformanceTimings(driver); // Browser timing APIs
+        logger.info("FormSteps initialized with thread-local WebDriver instance.");
+    }
+
+    @Before(order = 20000) // After Hooks.setUp, so this class is created with the scenario's driver
+    public void captureScenario(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    @After(order = 20000) // Higher order runs first: log before Hooks closes the browser
+    public void logLocatorCache() {
+        logger.info("Locator cache - BookingPage: " + bookingPage.getLocatorCache().stats()
+            + "; ContactUsPage: " + contactUsPage.getLocatorCache().stats());
     }
 
     @Given("the user navigates to the Event Management System homepage")
     public void user_navigates_to_homepage() {
         logger.info("Navigating to the homepage.");
         bookingPage.navigateToHomePage(); // Navigate to homepage
+        contactUsPage.getLocatorCache().invalidate(); // Same driver, so ContactUsPage's cached elements are now stale
     }
 
     // --- Booking Form Steps ---
@@ -47,16 +68,14 @@ public class FormSteps {
     @When("the user enters valid data for the booking form from {string} and row {int}")
     public void user_enters_valid_booking_data(String sheetName, Integer rowNumber) throws IOException {
         logger.info("Entering valid data for Booking form.");
-        Map<String, String> testData = new ExcelReader().getData(
-            "src/test/resources/testData/EventManagementTestData.xlsx", sheetName).get(rowNumber - 1); // Read test data
+        Map<String, String> testData = new ExcelReader().getRow(TEST_DATA_PATH, sheetName, rowNumber); // Read test data
         bookingPage.fillBookingForm(testData); // Fill booking form
     }
 
     @When("the user enters booking form data with an invalid email from {string} and row {int}")
     public void user_enters_invalid_email(String sheetName, Integer rowNumber) throws IOException {
         logger.warn("Entering data with invalid email.");
-        Map<String, String> testData = new ExcelReader().getData(
-            "src/test/resources/testData/EventManagementTestData.xlsx", sheetName).get(rowNumber - 1);
+        Map<String, String> testData = new ExcelReader().getRow(TEST_DATA_PATH, sheetName, rowNumber);
         bookingPage.fillBookingForm(testData);
         bookingPage.clickBookNow(); 
         
@@ -74,8 +93,7 @@ public class FormSteps {
     @When("the user enters valid data for the contact us form from {string} and row {int}")
     public void user_enters_valid_contact_us_data(String sheetName, Integer rowNumber) throws IOException {
         logger.info("Entering valid data for Contact Us form.");
-        Map<String, String> testData = new ExcelReader().getData(
-            "src/test/resources/testData/EventManagementTestData.xlsx", sheetName).get(rowNumber - 1); // Read test data
+        Map<String, String> testData = new ExcelReader().getRow(TEST_DATA_PATH, sheetName, rowNumber); // Read test data
         contactUsPage.fillContactUsForm(testData); // Fill contact form
     }
 
@@ -85,6 +103,9 @@ public class FormSteps {
     public void user_clicks_button(String buttonText) {
         logger.info("Clicking the '" + buttonText + "' button.");
         if (buttonText.equalsIgnoreCase("Book Now")) {
+            if (scenario != null && scenario.getSourceTagNames().contains("@Performance")) {
+                performanceTimings.markSubmit("booking-submit", "bookingconfirm"); // Start of the submission budget
+            }
             bookingPage.clickBookNow(); // Click Book Now
         } else if (buttonText.equalsIgnoreCase("Send Message Now")) {
             contactUsPage.clickSendMessage(); // Click Send Message Now
@@ -138,8 +159,7 @@ public class FormSteps {
     @When("the user enters booking form data with empty fields from {string} and row {int}")
     public void user_enters_booking_form_data_with_empty_fields(String sheetName, Integer rowNumber) throws IOException {
         logger.info("Entering empty data for Booking form.");
-        Map<String, String> testData = new ExcelReader().getData(
-            "src/test/resources/testData/EventManagementTestData.xlsx", sheetName).get(rowNumber - 1); // Read test data
+        Map<String, String> testData = new ExcelReader().getRow(TEST_DATA_PATH, sheetName, rowNumber); // Read test data
 
         for (String key : testData.keySet()) {
             testData.put(key, "");  // Set fields empty
@@ -151,8 +171,7 @@ public class FormSteps {
     @When("the user enters booking form data with an invalid phone number from {string} and row {int}")
     public void user_enters_invalid_phone_number(String sheetName, Integer rowNumber) throws IOException {
         logger.warn("Entering data with invalid phone number.");
-        Map<String, String> testData = new ExcelReader().getData(
-            "src/test/resources/testData/EventManagementTestData.xlsx", sheetName).get(rowNumber - 1);
+        Map<String, String> testData = new ExcelReader().getRow(TEST_DATA_PATH, sheetName, rowNumber);
         bookingPage.fillBookingForm(testData);
         bookingPage.clickBookNow(); 
         
@@ -168,8 +187,7 @@ public class FormSteps {
     @When("the user enters contact form data with empty fields from {string} and row {int}")
     public void user_enters_contact_form_data_with_empty_fields(String sheetName, Integer rowNumber) throws IOException {
         logger.info("Entering empty data for Contact Us form.");
-        Map<String, String> testData = new ExcelReader().getData(
-            "src/test/resources/testData/EventManagementTestData.xlsx", sheetName).get(rowNumber - 1); // Read test data
+        Map<String, String> testData = new ExcelReader().getRow(TEST_DATA_PATH, sheetName, rowNumber); // Read test data
 
         for (String key : testData.keySet()) {
             testData.put(key, ""); // Set fields empty
@@ -187,4 +205,40 @@ public class FormSteps {
         Assert.assertFalse(invalidFields.isEmpty(), "No validation messages found in Contact Us form.");
         logger.info("Validation messages detected for fields: " + invalidFields);
     }
+
+    // --- Performance Budget Steps ---
+
+    @Then("the homepage should load within {int} ms")
+    public void homepage_loads_within(Integer budgetMillis) {
+        Map<String, Object> timings = performanceTimings.navigation(budgetMillis); // Waits for the load event, at most the budget
+        attachTimings("homepage-timings", timings);
+
+        double load = PerformanceTimings.number(timings, "navigation", "load");
+        Assert.assertTrue(PerformanceTimings.number(timings, "navigation", "duration") >= 0,
+            "Navigation timing is not available: " + timings);
+        Assert.assertTrue(load > 0, "Homepage did not finish loading within the " + budgetMillis + " ms budget: " + timings);
+        Assert.assertTrue(load <= budgetMillis,
+            "Homepage load took " + Math.round(load) + " ms, budget is " + budgetMillis + " ms.");
+        logger.info("Homepage loaded in " + Math.round(load) + " ms (budget " + budgetMillis + " ms).");
+    }
+
+    @Then("the booking submission should complete within {int} ms")
+    public void booking_submission_completes_within(Integer budgetMillis) {
+        bookingPage.getAlertMessage(); // Make sure the result has appeared before reading the timing
+        Map<String, Object> timings = performanceTimings.submission("booking-submit");
+        Assert.assertNotNull(timings, "Booking submission was not measured; the scenario must be tagged @Performance.");
+        attachTimings("booking-submission-timings", timings);
+
+        double duration = PerformanceTimings.number(timings, "duration");
+        Assert.assertEquals(timings.get("completed"), Boolean.TRUE, "Booking confirmation text was not observed.");
+        Assert.assertTrue(duration <= budgetMillis,
+            "Booking submission took " + Math.round(duration) + " ms, budget is " + budgetMillis + " ms.");
+        logger.info("Booking submission completed in " + Math.round(duration) + " ms (budget " + budgetMillis + " ms).");
+    }
+
+    private void attachTimings(String name, Map<String, Object> timings) {
+        if (scenario != null) {
+            scenario.attach(new GsonBuilder().setPrettyPrinting().create().toJson(timings), "application/json", name);
+        }
+    }
 }
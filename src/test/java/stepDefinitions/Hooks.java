@@ -8,19 +8,30 @@ import io.cucumber.java.Scenario;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import utils.CommandMetrics;
+import utils.ConfigReader;
+import utils.RerunAttempt;
+import utils.ScreenshotWriter;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Map;
 
 public class Hooks {
 
     WebDriver driver;
 
     @Before
-    public void setUp() {
+    public void setUp(Scenario scenario) {
+        String uri = scenario.getUri().toString(); // May be opaque (file:src/...), so getPath() can be null
+        String feature = uri.substring(uri.lastIndexOf('/') + 1); // Feature file name
+        CommandMetrics.getInstance().startScenario(scenario.getName() + " (" + feature + ":" + scenario.getLine() + ")"); // Attribute driver commands
+        String rerun = RerunAttempt.describe(); // Null in the main pass
+        if (rerun != null) {
+            scenario.log("Rerun attempt: " + rerun + " after a failure in the main pass");
+        }
         // Start the browser before each scenario
         libraryClass.initializeBrowser(); // Initialize browser
         driver = libraryClass.getDriver(); // Get WebDriver instance
@@ -30,9 +41,10 @@ public class Hooks {
     @After
     public void tearDown(Scenario scenario) {
         try {
-            if (driver != null) {
-                // Take a screenshot
-                File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE); // Capture screenshot
+            ScreenshotWriter screenshots = ScreenshotWriter.getInstance(); // Policy and background writer
+            if (driver != null && screenshots.shouldCapture(scenario.isFailed())) {
+                // Take a screenshot in memory
+                byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES); // Capture screenshot
 
                 // Create file name
                 String time = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()); // Format timestamp
@@ -40,22 +52,25 @@ public class Hooks {
                 String name = scenario.getName().replaceAll("[^a-zA-Z0-9]", "_"); // Sanitize scenario name
                 String fileName = name + "_" + status + "_" + time + ".png"; // Build screenshot filename
 
-                // Save screenshot to folder
-                File folder = new File("src/test/resources/Screenshots"); // Define screenshot folder
-                if (!folder.exists()) {
-                    folder.mkdirs(); // Create folder if it doesn't exist
-                }
-                File savedFile = new File(folder, fileName); // File destination
-                Files.copy(screenshot.toPath(), savedFile.toPath()); // Save file
-
-                // Attach screenshot to report
-                scenario.attach(Files.readAllBytes(savedFile.toPath()), "image/png", fileName); // Attach to Cucumber report
-                System.out.println("Screenshot saved: " + savedFile.getAbsolutePath());
+                // Attach screenshot to report from memory, write the file in the background
+                scenario.attach(screenshot, "image/png", fileName); // Attach to Cucumber report
+                screenshots.save(fileName, scenario.isFailed(), screenshot); // Queue deduplicated file write
             }
-        } catch (IOException e) {
+        } catch (WebDriverException e) {
             System.out.println("Could not take screenshot: " + e.getMessage()); // Log failure
         } finally {
-            // Close the browser after each scenario
+            String rerun = RerunAttempt.describe(); // Mark attempts so the reports tell flaky from failed
+            if (rerun != null) {
+                scenario.log(scenario.isFailed() ? "Rerun attempt failed (" + rerun + ")" : "FLAKY: passed on " + rerun);
+            } else if (scenario.isFailed() && ConfigReader.getInstance().getInt("rerun.attempts", 0) > 0) {
+                scenario.log("Failed in the main pass; queued for rerun");
+            }
+            Map<String, Long> network = libraryClass.drainNetworkCounters(); // Empty unless network shaping is on
+            if (!network.isEmpty()) {
+                scenario.log("Network: " + network); // requests, bytes received, blocked requests
+            }
+            CommandMetrics.getInstance().endScenario(); // Pool reset commands are not part of the scenario
+            // Release the browser after each scenario
             libraryClass.closeBrowser(); // Close browser
             System.out.println("Browser closed.");
         }
@@ -0,0 +1,16 @@
+@Performance
+Feature: Front-end performance budgets
+
+  Background: User is on the Event Management System homepage
+    Given the user navigates to the Event Management System homepage
+
+  @Regression @TC_101
+  Scenario: Verify the homepage loads within budget
+    Then the homepage should load within 5000 ms
+
+  @Regression @TC_102
+  Scenario: Verify the booking submission completes within budget
+    When the user enters valid data for the booking form from "BookingData" and row 1
+    And the user clicks the "Book Now" button
+    Then a success message "Your Booking has been Confirmed !" should be displayed
+    And the booking submission should complete within 3000 ms